@@ -1,18 +1,28 @@
 package com.example.personColorAPI;
 
 import com.example.personColorAPI.config.ColorConfig;
+import com.example.personColorAPI.config.FileConfig;
+import com.example.personColorAPI.config.NativeImageHints;
 import com.example.personColorAPI.model.Person;
 import com.example.personColorAPI.service.CsvFileReaderService;
 import com.example.personColorAPI.service.CsvImporterService;
+import com.example.personColorAPI.service.FileFingerprint;
+import com.example.personColorAPI.service.ImportCoordinator;
+import com.example.personColorAPI.service.MultiFileImportService;
+import com.example.personColorAPI.service.PersonSnapshotService;
+import com.example.personColorAPI.service.TailImportService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * The main entry point of the application.
@@ -21,6 +31,7 @@ import java.util.List;
  */
 @SpringBootApplication
 @EnableConfigurationProperties(ColorConfig.class)
+@ImportRuntimeHints(NativeImageHints.class)
 @Slf4j
 public class PersonColorApiApplication {
 
@@ -36,22 +47,81 @@ public class PersonColorApiApplication {
     /**
      * CommandLineRunner bean to load and import data from a CSV file at application startup.
      * It reads the CSV file, processes it, and imports the data into the database.
+     * If snapshots are enabled and the CSV file has not changed since the last import,
+     * the persons are restored from the snapshot instead of parsing the file again.
+     * If an input directory is configured, all matching files are imported in parallel instead.
+     * When several nodes start at the same time, only the node holding the import lease imports while the others
+     * wait for the lease, and files that have already been imported by any node are skipped.
+     * In tail mode the CSV file is not imported here but incrementally by the {@link TailImportService}.
      *
-     * @param csvFileReaderService The service for reading the CSV file.
-     * @param csvImporterService   The service for importing persons from the CSV file.
+     * @param fileConfig             Configuration for the file path of the CSV file.
+     * @param csvFileReaderService   The service for reading the CSV file.
+     * @param csvImporterService     The service for importing persons from the CSV file.
+     * @param personSnapshotService  The service for reading and writing the snapshot of the imported persons.
+     * @param multiFileImportService The service for importing all CSV files of a directory.
+     * @param importCoordinator      The service for coordinating the import between several nodes.
+     * @param tailImportService      The service for importing the CSV file incrementally.
      * @return A CommandLineRunner that runs at application startup.
      */
     @Bean
-    public CommandLineRunner loadData(CsvFileReaderService csvFileReaderService, CsvImporterService csvImporterService) {
+    public CommandLineRunner loadData(FileConfig fileConfig, CsvFileReaderService csvFileReaderService,
+                                      CsvImporterService csvImporterService, PersonSnapshotService personSnapshotService,
+                                      MultiFileImportService multiFileImportService, ImportCoordinator importCoordinator,
+                                      TailImportService tailImportService) {
         return args -> {
             try {
-                log.info("Start importing CSV data...");
+                boolean imported = importCoordinator.runExclusively(() -> {
+                    log.info("Start importing CSV data...");
 
-                List<Person> persons = csvFileReaderService.readCsvFile();
+                    if (multiFileImportService.isDirectoryConfigured()) {
+                        multiFileImportService.importDirectory();
+                        log.info("CSV directory import finished.");
+                        return;
+                    }
 
-                csvImporterService.importPersons(persons);
+                    if (tailImportService.isEnabled()) {
+                        log.info("The CSV file {} is imported incrementally by the tail import.", fileConfig.getFilePath());
+                        return;
+                    }
 
-                log.info("CSV data successfully imported.");
+                    Path file = Path.of(fileConfig.getFilePath());
+                    FileFingerprint fingerprint = null;
+                    if (personSnapshotService.isEnabled() || importCoordinator.isEnabled()) {
+                        fingerprint = FileFingerprint.of(file);
+                        if (importCoordinator.isImported(fingerprint)) {
+                            log.info("The CSV file {} has already been imported.", file);
+                            return;
+                        }
+                    }
+
+                    if (personSnapshotService.isEnabled()) {
+                        Optional<List<Person>> snapshot = personSnapshotService.readSnapshot(fingerprint);
+                        if (snapshot.isPresent()) {
+                            csvImporterService.importSnapshot(snapshot.get());
+                            importCoordinator.markImported(file, fingerprint, snapshot.get().size());
+                            log.info("CSV data restored from snapshot.");
+                            return;
+                        }
+                    }
+
+                    List<Person> persons = csvFileReaderService.readCsvFile();
+
+                    csvImporterService.importPersons(persons);
+
+                    // The snapshot is written only after the import has been recorded, so a snapshot never
+                    // exists for an import that failed or was interrupted before it was recorded.
+                    if (fingerprint != null) {
+                        importCoordinator.markImported(file, fingerprint, persons.size());
+                    }
+                    if (personSnapshotService.isEnabled()) {
+                        personSnapshotService.writeSnapshot(fingerprint, persons);
+                    }
+
+                    log.info("CSV data successfully imported.");
+                });
+                if (!imported) {
+                    log.info("The startup import was stopped while waiting for the import lease.");
+                }
             } catch (IOException e) {
                 log.error("Error importing the CSV data: {}", e.getMessage(), e);
             }
@@ -0,0 +1,41 @@
+package com.example.personColorAPI.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Configuration of the binary response formats.
+ * Besides JSON, all endpoints can answer in CBOR ({@code Accept: application/cbor}) or Smile
+ * ({@code Accept: application/x-jackson-smile}), which are smaller and faster to write for large lists of persons.
+ * Both converters are built from the application's Jackson settings, so they produce the same fields as JSON.
+ */
+@Configuration
+public class BinaryFormatConfiguration {
+
+    /**
+     * Registers the converter for CBOR requests and responses.
+     *
+     * @param builder The Jackson builder configured by Spring Boot
+     * @return The CBOR message converter
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Registers the converter for Smile requests and responses.
+     *
+     * @param builder The Jackson builder configured by Spring Boot
+     * @return The Smile message converter
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
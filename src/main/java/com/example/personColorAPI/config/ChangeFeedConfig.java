@@ -0,0 +1,44 @@
+package com.example.personColorAPI.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration class to map the settings of the change feed for newly created persons.
+ * These settings bound the memory and threads used by the subscribers of {@code GET /persons/changes}.
+ */
+@Component
+@ConfigurationProperties(prefix = "persons.changes")
+@Getter
+@Setter
+public class ChangeFeedConfig {
+    /**
+     * The maximum number of created batches buffered per subscriber. A subscriber that falls further
+     * behind is disconnected and can resume from its last received event id.
+     */
+    private int bufferSize = 64;
+
+    /**
+     * The time in milliseconds a subscriber may take to accept one event. A subscriber whose write takes longer
+     * is disconnected, so a stalled client never holds back the others.
+     */
+    private long writeTimeoutMillis = 10_000;
+
+    /**
+     * The maximum number of subscribers connected at the same time.
+     */
+    private int maxSubscribers = 10_000;
+
+    /**
+     * The time in milliseconds after which a subscription is closed. Clients reconnect and resume from their last event id.
+     */
+    private long timeoutMillis = 1_800_000;
+
+    /**
+     * The number of recently committed persons kept for subscribers that resume from their last event id.
+     * A subscriber resuming from an older event id is told to load the current persons again.
+     */
+    private int historySize = 10_000;
+}
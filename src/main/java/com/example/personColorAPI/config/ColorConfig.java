@@ -1,7 +1,6 @@
 package com.example.personColorAPI.config;
 
 import lombok.Getter;
-import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
@@ -11,16 +10,42 @@ import java.util.Map;
  * Configuration class to map color settings from application properties.
  * This class is used to map color settings from the application properties file using the "colors" prefix.
  * The colors are mapped as a map where the key is the person ID (Integer) and the value is the associated color (String).
+ * The map can be replaced at runtime; it is held as an immutable snapshot that is swapped atomically,
+ * so lookups never block and always see either the old or the new mapping.
  */
 @Component
 @ConfigurationProperties(prefix = "colors")
 @Getter
-@Setter
 public class ColorConfig {
+    /**
+     * The color used for persons whose ID has no color assigned.
+     */
+    public static final String UNKNOWN_COLOR = "UNKNOWN";
+
     /**
      * A map of person IDs to their associated colors.
      * This map is populated from the application properties file with the key as the person ID
      * and the value as the color associated with that person.
      */
-    private Map<Integer, String> colors;
+    private volatile Map<Integer, String> colors;
+
+    /**
+     * Returns the color of the given person ID in the current mapping.
+     *
+     * @param personId The person ID
+     * @return The mapped color, or {@link #UNKNOWN_COLOR} if the person ID has no color assigned
+     */
+    public String colorOf(int personId) {
+        Map<Integer, String> current = colors;
+        return current == null ? UNKNOWN_COLOR : current.getOrDefault(personId, UNKNOWN_COLOR);
+    }
+
+    /**
+     * Replaces the color mapping with an immutable copy of the given map.
+     *
+     * @param colors The new map of person IDs to their associated colors
+     */
+    public void setColors(Map<Integer, String> colors) {
+        this.colors = colors == null ? null : Map.copyOf(colors);
+    }
 }
@@ -0,0 +1,103 @@
+package com.example.personColorAPI.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration class to map the settings of the adaptive concurrency limit from the application properties.
+ * The limit is the number of requests processed at the same time. It is raised while requests complete close to
+ * the baseline latency of their endpoint group and lowered when they take clearly longer, which indicates that they
+ * queue. Each endpoint group may use only its share of the limit, so cheap lookups are still admitted while full
+ * scans are already shed.
+ */
+@Component
+@ConfigurationProperties(prefix = "concurrency-limit")
+@Getter
+@Setter
+public class ConcurrencyLimitConfig {
+    /**
+     * Whether requests beyond the limit are rejected with 503.
+     */
+    private boolean enabled = true;
+
+    /**
+     * The limit at startup.
+     */
+    private int initialLimit = 50;
+
+    /**
+     * The lowest value the limit is decreased to.
+     */
+    private int minLimit = 4;
+
+    /**
+     * The highest value the limit is increased to. It should not exceed the number of Tomcat worker threads.
+     */
+    private int maxLimit = 180;
+
+    /**
+     * The smallest factor the limit is multiplied with when a request queued. The limit is multiplied with the
+     * gradient of the request, the baseline latency times the tolerance divided by its latency, but at least with this factor.
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * How many times longer than the baseline latency of its endpoint group a request may take before it counts as queued.
+     */
+    private double latencyTolerance = 2.0;
+
+    /**
+     * The weight of each request in the baseline latency of its endpoint group, between 0 and 1. Small values let the
+     * baseline follow a lasting change of the latency slowly, so a steadily slow endpoint does not lower the limit.
+     */
+    private double baselineSmoothing = 0.01;
+
+    /**
+     * The number of seconds sent in the Retry-After header of a rejected request.
+     */
+    private int retryAfterSeconds = 1;
+
+    /**
+     * Lookups of single persons by personId or by a batch of keys. They may use the whole limit.
+     */
+    private Endpoint lookup = new Endpoint(1.0);
+
+    /**
+     * Creating persons.
+     */
+    private Endpoint write = new Endpoint(0.8);
+
+    /**
+     * Reading all persons or all persons of a color. They are shed first.
+     */
+    private Endpoint scan = new Endpoint(0.3);
+
+    /**
+     * The limit settings of one endpoint group.
+     */
+    @Getter
+    @Setter
+    public static class Endpoint {
+        /**
+         * The share of the limit that requests of this group may use, between 0 and 1.
+         */
+        private double share;
+
+        /**
+         * Creates the settings of an endpoint group with no share.
+         */
+        public Endpoint() {
+        }
+
+        /**
+         * Creates the settings of an endpoint group.
+         *
+         * @param share The share of the limit that requests of this group may use
+         */
+        public Endpoint(double share) {
+            this.share = share;
+        }
+    }
+}
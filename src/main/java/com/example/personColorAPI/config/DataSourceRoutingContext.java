@@ -0,0 +1,44 @@
+package com.example.personColorAPI.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Allows code to pin its database access to the primary, even for read-only transactions.
+ * This is used for reads that must see the latest writes, such as the duplicate checks of an import.
+ * Without a read replica the pinning has no effect.
+ */
+public final class DataSourceRoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private DataSourceRoutingContext() {
+    }
+
+    /**
+     * Runs the given action with all database access of the current thread sent to the primary.
+     *
+     * @param action The action to run
+     * @param <T>    The result type of the action
+     * @return The result of the action
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        if (isPrimaryRequired()) {
+            return action.get();
+        }
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            PRIMARY_REQUIRED.remove();
+        }
+    }
+
+    /**
+     * Returns whether the current thread must use the primary.
+     *
+     * @return true if the current thread runs inside {@link #onPrimary(Supplier)}; false otherwise
+     */
+    public static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+}
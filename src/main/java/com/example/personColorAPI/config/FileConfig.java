@@ -20,4 +20,32 @@ public class FileConfig {
      * This value is populated from the application properties file under the "file" prefix.
      */
     private String filePath;
+
+    /**
+     * The maximum number of distinct zipcodes, cities and colors that are shared between rows while parsing.
+     * Values beyond this limit are kept as separate String instances.
+     */
+    private int internCapacity = 10_000;
+
+    /**
+     * The directory containing the input files. If set, all files matching the pattern are imported
+     * instead of the single file at the file path.
+     */
+    private String directory;
+
+    /**
+     * The glob pattern used to select the input files within the directory.
+     */
+    private String pattern = "*.csv";
+
+    /**
+     * The number of files that are read and imported in parallel.
+     */
+    private int workerThreads = 4;
+
+    /**
+     * The directory where rejected rows are written, one rejects file per input file.
+     * If not set, rejected rows are only counted.
+     */
+    private String rejectsDirectory;
 }
@@ -0,0 +1,41 @@
+package com.example.personColorAPI.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration class to map the settings of the continuous Java Flight Recorder recording from the application properties.
+ * The recording combines the JDK default profile with the settings profile of the custom events shipped with the application.
+ */
+@Component
+@ConfigurationProperties(prefix = "jfr")
+@Getter
+@Setter
+public class FlightRecorderConfig {
+    /**
+     * Whether the application starts a continuous recording.
+     */
+    private boolean enabled;
+
+    /**
+     * The classpath location of the settings profile for the custom events.
+     */
+    private String settings = "jfr/person-color-api.jfc";
+
+    /**
+     * The maximum age in milliseconds of the data kept in the recording.
+     */
+    private long maxAgeMillis = 3_600_000;
+
+    /**
+     * The maximum size in bytes of the data kept in the recording.
+     */
+    private long maxSizeBytes = 256L * 1024 * 1024;
+
+    /**
+     * The file the recording is written to when the application stops.
+     */
+    private String dumpPath = "data/person-color-api.jfr";
+}
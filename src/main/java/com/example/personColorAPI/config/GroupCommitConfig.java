@@ -0,0 +1,41 @@
+package com.example.personColorAPI.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration class to map the group commit settings for creating single persons.
+ * When enabled, concurrent creations are collected and written to the database in one transaction.
+ */
+@Component
+@ConfigurationProperties(prefix = "persons.group-commit")
+@Getter
+@Setter
+public class GroupCommitConfig {
+    /**
+     * Whether concurrent creations of single persons are committed together.
+     */
+    private boolean enabled;
+
+    /**
+     * The maximum number of persons committed in one transaction.
+     */
+    private int maxBatchSize = 100;
+
+    /**
+     * The maximum time in milliseconds a creation waits for further creations before its batch is committed.
+     */
+    private long maxDelayMillis = 5;
+
+    /**
+     * The maximum number of creations waiting for their batch. Further callers block until there is room.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * The maximum time in milliseconds a creation waits for the commit of its batch before it fails.
+     */
+    private long commitTimeoutMillis = 30_000;
+}
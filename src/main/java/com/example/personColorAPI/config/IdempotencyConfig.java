@@ -0,0 +1,36 @@
+package com.example.personColorAPI.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration class to map the settings of the idempotency keys for creating persons.
+ * A retried request with the same {@code Idempotency-Key} returns the original result instead of creating a duplicate.
+ */
+@Component
+@ConfigurationProperties(prefix = "persons.idempotency")
+@Getter
+@Setter
+public class IdempotencyConfig {
+    /**
+     * The maximum number of keys kept in memory. The oldest keys are evicted first.
+     */
+    private int maxEntries = 100_000;
+
+    /**
+     * The time in milliseconds for which a key is remembered.
+     */
+    private long ttlMillis = 86_400_000;
+
+    /**
+     * Whether keys are also stored in the database, so they survive a restart and are shared between nodes.
+     */
+    private boolean persistent;
+
+    /**
+     * The maximum time in milliseconds a retry waits for a key reserved by a request on another node.
+     */
+    private long pendingTimeoutMillis = 10_000;
+}
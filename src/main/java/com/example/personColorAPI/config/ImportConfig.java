@@ -0,0 +1,26 @@
+package com.example.personColorAPI.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration class to map import settings from the application properties.
+ * These settings control how persons are written to the database during an import.
+ */
+@Component
+@ConfigurationProperties(prefix = "import")
+@Getter
+@Setter
+public class ImportConfig {
+    /**
+     * The maximum number of persons written to the database with a single saveAll call.
+     */
+    private int batchSize = 1_000;
+
+    /**
+     * The maximum number of batches written to the database at the same time across all imports.
+     */
+    private int maxConcurrentWriters = 2;
+}
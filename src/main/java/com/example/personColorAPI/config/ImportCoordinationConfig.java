@@ -0,0 +1,39 @@
+package com.example.personColorAPI.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration class to map the import coordination settings from the application properties.
+ * When several nodes start at the same time, these settings ensure that only one of them imports
+ * and that a file is never imported twice.
+ */
+@Component
+@ConfigurationProperties(prefix = "import.coordination")
+@Getter
+@Setter
+public class ImportCoordinationConfig {
+    /**
+     * Whether the startup import is guarded by a database lease and imported files are recorded.
+     * Disabled by default, so a single node does not need the lease and imported file tables.
+     */
+    private boolean enabled;
+
+    /**
+     * The name of this node in the lease. If empty, the process id and host name are used.
+     */
+    private String nodeId;
+
+    /**
+     * The time in milliseconds after which the lease of a node that stopped renewing it can be taken over.
+     */
+    private long leaseTtlMillis = 30_000;
+
+    /**
+     * The interval in milliseconds in which the node holding the lease renews it
+     * and in which a waiting node tries to take it.
+     */
+    private long heartbeatIntervalMillis = 10_000;
+}
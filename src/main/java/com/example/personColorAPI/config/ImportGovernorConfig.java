@@ -0,0 +1,47 @@
+package com.example.personColorAPI.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration class to map the settings of the import governor from the application properties.
+ * The governor limits the write rate of imports and backs off while online requests are slow
+ * or the connection pool runs short of free connections.
+ */
+@Component
+@ConfigurationProperties(prefix = "import.governor")
+@Getter
+@Setter
+public class ImportGovernorConfig {
+    /**
+     * Whether imports back off while online requests are slow or the connection pool is under pressure.
+     */
+    private boolean enabled = true;
+
+    /**
+     * The maximum number of persons written per second across all imports. 0 disables the rate limit.
+     */
+    private int maxRowsPerSecond;
+
+    /**
+     * The average request duration in milliseconds above which imports back off.
+     */
+    private long targetRequestLatencyMillis = 250;
+
+    /**
+     * The number of connections of the primary pool that imports leave free for online requests.
+     */
+    private int reservedReadConnections = 2;
+
+    /**
+     * The first pause in milliseconds before a batch is written under pressure.
+     */
+    private long minBackoffMillis = 50;
+
+    /**
+     * The longest pause in milliseconds before a batch is written under pressure.
+     */
+    private long maxBackoffMillis = 2_000;
+}
@@ -0,0 +1,31 @@
+package com.example.personColorAPI.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration class to map the monitoring thresholds from the application properties.
+ * Requests and repository calls that exceed these thresholds are logged as warnings.
+ */
+@Component
+@ConfigurationProperties(prefix = "monitoring")
+@Getter
+@Setter
+public class MonitoringConfig {
+    /**
+     * The duration in milliseconds above which a repository call is logged as a slow query.
+     */
+    private long slowQueryMillis = 200;
+
+    /**
+     * The duration in milliseconds above which a request is logged as slow.
+     */
+    private long slowRequestMillis = 1_000;
+
+    /**
+     * The number of SQL statements above which a single request is logged as a warning.
+     */
+    private long maxStatementsPerRequest = 20;
+}
@@ -0,0 +1,36 @@
+package com.example.personColorAPI.config;
+
+import com.example.personColorAPI.model.PersonKey;
+import com.example.personColorAPI.monitoring.HttpRequestEvent;
+import com.example.personColorAPI.monitoring.ImportBatchEvent;
+import com.example.personColorAPI.monitoring.ParseChunkEvent;
+import com.example.personColorAPI.monitoring.RepositoryQueryEvent;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.util.List;
+
+/**
+ * Registers the reflection and resource hints of a native image that Spring AOT cannot derive on its own.
+ * Entities, repositories, configuration properties and the request and response types of the controllers,
+ * which the CBOR and Smile converters write like JSON, are registered by Spring AOT. Registered here are
+ * <ul>
+ *     <li>the natural key created by Hibernate from a JPQL constructor expression,</li>
+ *     <li>the custom Java Flight Recorder events, whose fields are read when they are registered,</li>
+ *     <li>the settings profile of the continuous recording, which is read from the classpath.</li>
+ * </ul>
+ */
+public class NativeImageHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.reflection().registerType(PersonKey.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        for (Class<?> event : List.of(HttpRequestEvent.class, ImportBatchEvent.class, ParseChunkEvent.class,
+                RepositoryQueryEvent.class)) {
+            hints.reflection().registerType(event, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.DECLARED_FIELDS);
+        }
+        hints.resources().registerPattern("jfr/*.jfc");
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.personColorAPI.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration class to map the read replica settings from the application properties.
+ * When enabled, read-only transactions are sent to the replica while all other traffic stays on the
+ * primary database configured with the "spring.datasource" properties.
+ */
+@Component
+@ConfigurationProperties(prefix = "datasource.replica")
+@Getter
+@Setter
+public class ReadReplicaConfig {
+    /**
+     * Whether read-only transactions are routed to the replica.
+     */
+    private boolean enabled;
+
+    /**
+     * The JDBC URL of the replica.
+     */
+    private String url;
+
+    /**
+     * The user name for the replica connections.
+     */
+    private String username;
+
+    /**
+     * The password for the replica connections.
+     */
+    private String password;
+
+    /**
+     * The maximum number of connections in the replica pool.
+     */
+    private int poolSize = 10;
+
+    /**
+     * The maximum replication lag in milliseconds. If the replica falls further behind, reads go to the primary
+     * until it has caught up. A value of 0 or less disables the lag check.
+     */
+    private long maxLagMillis = 1_000;
+
+    /**
+     * The query returning the replication lag of the replica in milliseconds, or null if it is not replicating.
+     * The default query reports no lag while the replica has replayed everything it received, because the time
+     * since the last replayed transaction keeps growing while the primary is idle.
+     */
+    private String lagQuery = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+            + " ELSE CAST(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000 AS BIGINT) END";
+
+    /**
+     * The interval in milliseconds between two checks of the replication lag.
+     */
+    private long lagCheckIntervalMillis = 5_000;
+}
@@ -0,0 +1,79 @@
+package com.example.personColorAPI.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuration of the read/write routing data source.
+ * This configuration is only active if "datasource.replica.enabled" is true. It replaces the auto-configured
+ * data source with one that sends read-only transactions to the replica and all other traffic to the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.replica", name = "enabled", havingValue = "true")
+@EnableScheduling
+@Slf4j
+public class ReadReplicaDataSourceConfiguration {
+
+    /**
+     * Creates the routing data source with a connection pool for the primary and one for the replica.
+     *
+     * @param dataSourceProperties The "spring.datasource" properties of the primary
+     * @param readReplicaConfig    Configuration for the replica connection
+     * @return The routing data source
+     */
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                                 ReadReplicaConfig readReplicaConfig) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(readReplicaConfig.getUrl())
+                .username(readReplicaConfig.getUsername())
+                .password(readReplicaConfig.getPassword())
+                .build();
+        replica.setPoolName("replica");
+        replica.setMaximumPoolSize(readReplicaConfig.getPoolSize());
+        replica.setReadOnly(true);
+
+        log.info("Read-only transactions are routed to the replica at {}.", readReplicaConfig.getUrl());
+        return new ReadWriteRoutingDataSource(primary, replica);
+    }
+
+    /**
+     * Exposes the routing data source to JPA. The lazy proxy defers fetching a connection until the first
+     * statement, when the read-only flag of the transaction is known.
+     *
+     * @param readWriteRoutingDataSource The routing data source
+     * @return The data source used by the application
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    /**
+     * Creates the monitor that moves reads back to the primary while the replica lags behind.
+     *
+     * @param readWriteRoutingDataSource The routing data source
+     * @param readReplicaConfig          Configuration for the maximum lag and the lag query
+     * @return The replication lag monitor
+     */
+    @Bean
+    public ReplicationLagMonitor replicationLagMonitor(ReadWriteRoutingDataSource readWriteRoutingDataSource,
+                                                       ReadReplicaConfig readReplicaConfig) {
+        return new ReplicationLagMonitor(readWriteRoutingDataSource, readReplicaConfig);
+    }
+}
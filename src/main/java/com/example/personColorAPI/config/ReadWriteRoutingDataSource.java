@@ -0,0 +1,106 @@
+package com.example.personColorAPI.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * A DataSource that sends read-only transactions to a replica and everything else to the primary.
+ * Reads fall back to the primary while the replica is marked as unavailable, for example because its
+ * replication lag is too high, and while the current thread is pinned to the primary by the
+ * {@link DataSourceRoutingContext}. It must be wrapped in a lazy connection proxy, so that the read-only
+ * flag of the transaction is known when the connection is fetched.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    /**
+     * The lookup keys of the two target data sources.
+     */
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private volatile boolean replicaAvailable = true;
+
+    /**
+     * Creates a routing data source for the given primary and replica.
+     *
+     * @param primary The data source receiving writes and all non read-only traffic
+     * @param replica The data source receiving read-only transactions
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica) {
+        this.primary = primary;
+        this.replica = replica;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * Returns the primary data source.
+     *
+     * @return The data source receiving writes and all non read-only traffic
+     */
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    /**
+     * Returns the replica data source.
+     *
+     * @return The data source receiving read-only transactions
+     */
+    public DataSource getReplica() {
+        return replica;
+    }
+
+    /**
+     * Marks the replica as available or unavailable for reads.
+     *
+     * @param replicaAvailable true if reads may go to the replica; false to send them to the primary
+     */
+    public void setReplicaAvailable(boolean replicaAvailable) {
+        if (this.replicaAvailable != replicaAvailable) {
+            log.warn("The read replica is now {} for reads.", replicaAvailable ? "used" : "not used");
+        }
+        this.replicaAvailable = replicaAvailable;
+    }
+
+    /**
+     * Returns whether reads may go to the replica.
+     *
+     * @return true if the replica is used for read-only transactions; false otherwise
+     */
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaAvailable
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !DataSourceRoutingContext.isPrimaryRequired()) {
+            return Route.REPLICA;
+        }
+        return Route.PRIMARY;
+    }
+
+    /**
+     * Closes the connection pools of the primary and the replica.
+     */
+    @Override
+    public void close() throws Exception {
+        if (replica instanceof AutoCloseable closeableReplica) {
+            closeableReplica.close();
+        }
+        if (primary instanceof AutoCloseable closeablePrimary) {
+            closeablePrimary.close();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.personColorAPI.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Periodically measures the replication lag of the read replica.
+ * If the lag exceeds the configured maximum or the replica cannot be queried, reads are sent to the
+ * primary until the next check finds the replica healthy again.
+ */
+@Slf4j
+public class ReplicationLagMonitor {
+
+    private final ReadWriteRoutingDataSource routingDataSource;
+    private final ReadReplicaConfig readReplicaConfig;
+    private final JdbcTemplate replicaJdbcTemplate;
+
+    /**
+     * Creates a monitor for the replica of the given routing data source.
+     *
+     * @param routingDataSource The routing data source whose replica is monitored
+     * @param readReplicaConfig Configuration for the maximum lag and the lag query
+     */
+    public ReplicationLagMonitor(ReadWriteRoutingDataSource routingDataSource, ReadReplicaConfig readReplicaConfig) {
+        this.routingDataSource = routingDataSource;
+        this.readReplicaConfig = readReplicaConfig;
+        this.replicaJdbcTemplate = new JdbcTemplate(routingDataSource.getReplica());
+    }
+
+    /**
+     * Checks the replication lag and updates whether the replica is used for reads.
+     */
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval-millis:5000}")
+    public void checkReplicationLag() {
+        if (readReplicaConfig.getMaxLagMillis() <= 0) {
+            return;
+        }
+        try {
+            Long lagMillis = replicaJdbcTemplate.queryForObject(readReplicaConfig.getLagQuery(), Long.class);
+            boolean healthy = lagMillis == null || lagMillis <= readReplicaConfig.getMaxLagMillis();
+            if (!healthy) {
+                log.warn("The replication lag of {} ms exceeds the maximum of {} ms.", lagMillis, readReplicaConfig.getMaxLagMillis());
+            }
+            routingDataSource.setReplicaAvailable(healthy);
+        } catch (Exception e) {
+            log.warn("The replication lag could not be checked: {}", e.getMessage());
+            routingDataSource.setReplicaAvailable(false);
+        }
+    }
+}
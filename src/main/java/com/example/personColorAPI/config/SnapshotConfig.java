@@ -0,0 +1,27 @@
+package com.example.personColorAPI.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration class to map snapshot settings from the application properties.
+ * The snapshot is a binary copy of the imported dataset that allows a restart to skip
+ * parsing and deduplication when the input file has not changed.
+ */
+@Component
+@ConfigurationProperties(prefix = "snapshot")
+@Getter
+@Setter
+public class SnapshotConfig {
+    /**
+     * Whether the snapshot is written after an import and used on the next start.
+     */
+    private boolean enabled;
+
+    /**
+     * The path of the binary snapshot file.
+     */
+    private String path = "data/person-snapshot.bin";
+}
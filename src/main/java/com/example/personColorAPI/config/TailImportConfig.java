@@ -0,0 +1,27 @@
+package com.example.personColorAPI.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration class to map the settings of the incremental tail import from the application properties.
+ * In tail mode the file at the file path is watched, and only rows appended since the last
+ * committed checkpoint are imported.
+ */
+@Component
+@ConfigurationProperties(prefix = "file.tail")
+@Getter
+@Setter
+public class TailImportConfig {
+    /**
+     * Whether the file at the file path is imported incrementally instead of completely at startup.
+     */
+    private boolean enabled;
+
+    /**
+     * The interval in milliseconds in which the file is checked for appended rows.
+     */
+    private long pollIntervalMillis = 5_000;
+}
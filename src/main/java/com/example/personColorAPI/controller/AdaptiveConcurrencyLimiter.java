@@ -0,0 +1,157 @@
+package com.example.personColorAPI.controller;
+
+import com.example.personColorAPI.config.ConcurrencyLimitConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Limits the number of requests processed at the same time with an adaptive limit based on the latency gradient.
+ * Each endpoint group tracks a baseline latency, a slowly moving average of its request latencies. The gradient of
+ * a request is the baseline times the tolerance divided by its latency. A request with a gradient of at least 1
+ * did not queue and raises the limit by one while at least half of the limit is in use; a request with a smaller
+ * gradient queued and multiplies the limit with the gradient, but at least with the backoff ratio. An endpoint
+ * that is steadily slow therefore does not lower the limit, only latency rising above its usual level does.
+ * A request is admitted only while fewer requests are in flight than the share of its endpoint group allows,
+ * so scans are shed long before lookups.
+ * The number of accepted and shed requests per endpoint group, the limit and the requests in flight are
+ * published as metrics.
+ */
+@Component
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    static final String REQUESTS_METRIC = "concurrency.limit.requests";
+    static final String LIMIT_METRIC = "concurrency.limit";
+    static final String IN_FLIGHT_METRIC = "concurrency.limit.in-flight";
+
+    private final ConcurrencyLimitConfig config;
+    private final Map<EndpointGroup, Counter> acceptedRequests = new EnumMap<>(EndpointGroup.class);
+    private final Map<EndpointGroup, Counter> shedRequests = new EnumMap<>(EndpointGroup.class);
+    private final Map<EndpointGroup, Double> baselineMillis = new EnumMap<>(EndpointGroup.class);
+
+    private double limit;
+    private int inFlight;
+
+    /**
+     * Constructor for the AdaptiveConcurrencyLimiter that injects the configuration and registers the metrics.
+     *
+     * @param config        Configuration for the limit bounds, the backoff and the endpoint groups
+     * @param meterRegistry The registry receiving the metrics
+     */
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.limit = Math.min(Math.max(config.getInitialLimit(), config.getMinLimit()), config.getMaxLimit());
+        for (EndpointGroup group : EndpointGroup.values()) {
+            String endpoint = group.name().toLowerCase(Locale.ROOT);
+            acceptedRequests.put(group, Counter.builder(REQUESTS_METRIC).tag("endpoint", endpoint).tag("outcome", "accepted")
+                    .description("Requests admitted by the concurrency limit").register(meterRegistry));
+            shedRequests.put(group, Counter.builder(REQUESTS_METRIC).tag("endpoint", endpoint).tag("outcome", "shed")
+                    .description("Requests rejected by the concurrency limit").register(meterRegistry));
+        }
+        Gauge.builder(LIMIT_METRIC, this, limiter -> limiter.getLimit())
+                .description("The current concurrency limit").register(meterRegistry);
+        Gauge.builder(IN_FLIGHT_METRIC, this, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("The requests currently processed under the concurrency limit").register(meterRegistry);
+    }
+
+    /**
+     * Admits a request of the given endpoint group if the limit of the group is not reached.
+     * Every admitted request must be followed by a call to {@link #release(EndpointGroup, long)}.
+     *
+     * @param group The endpoint group of the request
+     * @return true if the request may be processed; false if it is shed
+     */
+    public boolean tryAcquire(EndpointGroup group) {
+        boolean acquired;
+        synchronized (this) {
+            acquired = inFlight < getLimit(group);
+            if (acquired) {
+                inFlight++;
+            }
+        }
+        (acquired ? acceptedRequests : shedRequests).get(group).increment();
+        return acquired;
+    }
+
+    /**
+     * Releases an admitted request, adapts the limit to the gradient of its latency and adds the latency
+     * to the baseline of its endpoint group. The first request of a group only sets the baseline.
+     *
+     * @param group         The endpoint group of the request
+     * @param latencyMillis The time the request took in milliseconds
+     */
+    public synchronized void release(EndpointGroup group, long latencyMillis) {
+        int inFlightBefore = inFlight--;
+        double sample = Math.max(latencyMillis, 1);
+        Double baseline = baselineMillis.get(group);
+        if (baseline == null) {
+            baselineMillis.put(group, sample);
+            return;
+        }
+        double gradient = config.getLatencyTolerance() * baseline / sample;
+        if (gradient < 1.0) {
+            double decreased = Math.max(config.getMinLimit(), limit * Math.max(gradient, config.getBackoffRatio()));
+            if ((int) decreased < (int) limit) {
+                log.debug("{} request took {} ms at a baseline of {} ms, the concurrency limit is decreased to {}.",
+                        group, latencyMillis, Math.round(baseline), (int) decreased);
+            }
+            limit = decreased;
+        } else if (inFlightBefore * 2 >= limit) {
+            limit = Math.min(config.getMaxLimit(), limit + 1);
+        }
+        baselineMillis.put(group, baseline + (sample - baseline) * config.getBaselineSmoothing());
+    }
+
+    /**
+     * Returns the baseline latency of the given endpoint group.
+     *
+     * @param group The endpoint group
+     * @return The baseline latency in milliseconds, or 0 if no request of the group has been released yet
+     */
+    public synchronized double getBaselineMillis(EndpointGroup group) {
+        return baselineMillis.getOrDefault(group, 0.0);
+    }
+
+    /**
+     * Returns the number of requests of the given endpoint group admitted at the same time.
+     *
+     * @param group The endpoint group
+     * @return The share of the current limit available to the group, at least 1
+     */
+    public synchronized int getLimit(EndpointGroup group) {
+        return Math.max(1, (int) (limit * endpoint(group).getShare()));
+    }
+
+    /**
+     * Returns the current limit.
+     *
+     * @return The number of requests admitted at the same time
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Returns the number of admitted requests that have not been released yet.
+     *
+     * @return The number of requests in flight
+     */
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private ConcurrencyLimitConfig.Endpoint endpoint(EndpointGroup group) {
+        return switch (group) {
+            case LOOKUP -> config.getLookup();
+            case WRITE -> config.getWrite();
+            case SCAN -> config.getScan();
+        };
+    }
+}
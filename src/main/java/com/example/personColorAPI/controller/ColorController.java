@@ -0,0 +1,60 @@
+package com.example.personColorAPI.controller;
+
+import com.example.personColorAPI.model.ColorMappingUpdate;
+import com.example.personColorAPI.service.ColorMappingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Controller class that handles HTTP requests related to the color mapping.
+ * This class provides endpoints for reading the active mapping and replacing it at runtime.
+ */
+@RestController
+@RequestMapping("/colors")
+@Slf4j
+public class ColorController {
+
+    private final ColorMappingService colorMappingService;
+
+    /**
+     * Constructor for the ColorController that injects the ColorMappingService.
+     *
+     * @param colorMappingService The service for managing the color mapping
+     */
+    @Autowired
+    public ColorController(ColorMappingService colorMappingService) {
+        this.colorMappingService = colorMappingService;
+    }
+
+    /**
+     * Handles the request to fetch the active color mapping.
+     *
+     * @return A ResponseEntity containing the map of person IDs to their associated colors
+     */
+    @GetMapping
+    public ResponseEntity<Map<Integer, String>> getColors() {
+        log.info("Request received to fetch the color mapping.");
+        return ResponseEntity.ok(colorMappingService.getColors());
+    }
+
+    /**
+     * Handles the request to replace the color mapping and recolor the stored persons.
+     *
+     * @param colors The new map of person IDs to their associated colors
+     * @return A ResponseEntity containing the outcome of the update or a bad-request status if the mapping is invalid
+     */
+    @PutMapping
+    public ResponseEntity<ColorMappingUpdate> updateColors(@RequestBody Map<Integer, String> colors) {
+        log.info("Request received to replace the color mapping: {}", colors);
+        try {
+            return ResponseEntity.ok(colorMappingService.updateColors(colors));
+        } catch (IllegalArgumentException e) {
+            log.warn("The color mapping was rejected: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
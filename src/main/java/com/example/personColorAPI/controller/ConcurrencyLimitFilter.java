@@ -0,0 +1,69 @@
+package com.example.personColorAPI.controller;
+
+import com.example.personColorAPI.config.ConcurrencyLimitConfig;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sheds requests to the person endpoints that exceed the {@link AdaptiveConcurrencyLimiter}.
+ * A shed request is answered immediately with 503 and a Retry-After header instead of waiting for a worker
+ * thread or a database connection. The filter runs before all other filters, so a shed request costs
+ * almost nothing. Requests to other endpoints and the change feed are not limited.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final ConcurrencyLimitConfig config;
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    /**
+     * Constructor for the ConcurrencyLimitFilter that injects the configuration and the limiter.
+     *
+     * @param config  Configuration for enabling the limit and the Retry-After header
+     * @param limiter The limiter admitting or shedding requests
+     */
+    public ConcurrencyLimitFilter(ConcurrencyLimitConfig config, AdaptiveConcurrencyLimiter limiter) {
+        this.config = config;
+        this.limiter = limiter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointGroup group = config.isEnabled()
+                ? EndpointGroup.of(request.getMethod(), request.getRequestURI().substring(request.getContextPath().length()))
+                : null;
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!limiter.tryAcquire(group)) {
+            log.debug("{} {} is shed, {} of {} requests in flight.", request.getMethod(), request.getRequestURI(),
+                    limiter.getInFlight(), limiter.getLimit(group));
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(config.getRetryAfterSeconds()));
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(group, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.personColorAPI.controller;
+
+/**
+ * The groups of endpoints that share the adaptive concurrency limit, in the order of their priority.
+ */
+public enum EndpointGroup {
+    /**
+     * GET /persons/{personId} and POST /persons/lookup.
+     */
+    LOOKUP,
+
+    /**
+     * POST /persons.
+     */
+    WRITE,
+
+    /**
+     * GET /persons and GET /persons/color/{color}.
+     */
+    SCAN;
+
+    /**
+     * Determines the group of a request.
+     *
+     * @param method The HTTP method of the request
+     * @param path   The path of the request without the context path
+     * @return The group of the request, or null if the request is not limited
+     */
+    public static EndpointGroup of(String method, String path) {
+        String normalized = path.endsWith("/") && path.length() > 1 ? path.substring(0, path.length() - 1) : path;
+        if ("GET".equals(method)) {
+            if (normalized.equals("/persons") || normalized.startsWith("/persons/color/")) {
+                return SCAN;
+            }
+            if (normalized.startsWith("/persons/") && normalized.indexOf('/', "/persons/".length()) < 0
+                    && !normalized.equals("/persons/changes")) {
+                return LOOKUP;
+            }
+        } else if ("POST".equals(method)) {
+            if (normalized.equals("/persons/lookup")) {
+                return LOOKUP;
+            }
+            if (normalized.equals("/persons")) {
+                return WRITE;
+            }
+        }
+        return null;
+    }
+}
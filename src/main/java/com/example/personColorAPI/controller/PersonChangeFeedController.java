@@ -0,0 +1,56 @@
+package com.example.personColorAPI.controller;
+
+import com.example.personColorAPI.service.PersonChangeFeed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Controller class that streams newly created persons as Server-Sent Events.
+ * Clients subscribe once instead of polling and diffing the full list of persons.
+ */
+@RestController
+@RequestMapping("/persons")
+@Slf4j
+public class PersonChangeFeedController {
+
+    private final PersonChangeFeed personChangeFeed;
+
+    /**
+     * Constructor for the PersonChangeFeedController that injects the PersonChangeFeed.
+     *
+     * @param personChangeFeed The service that pushes created persons to the subscribers
+     */
+    @Autowired
+    public PersonChangeFeedController(PersonChangeFeed personChangeFeed) {
+        this.personChangeFeed = personChangeFeed;
+    }
+
+    /**
+     * Handles the request to subscribe to newly created persons.
+     * Each event carries the created person as data and its position in the commit order as event id. A reconnecting
+     * client resumes with the {@code Last-Event-ID} header that browsers send automatically, or with the lastEventId parameter.
+     *
+     * @param colors            The colors to receive; all colors if none are given
+     * @param lastEventId       The event id of the last received person, as a request parameter
+     * @param lastEventIdHeader The event id of the last received person, as sent by an EventSource on reconnect
+     * @return A ResponseEntity containing the event stream or a service-unavailable status if too many clients are subscribed
+     */
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(@RequestParam(name = "color", required = false) List<String> colors,
+                                                    @RequestParam(required = false) Long lastEventId,
+                                                    @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventIdHeader) {
+        Long lastSeenEventId = lastEventIdHeader != null ? lastEventIdHeader : lastEventId;
+        log.info("Request received to subscribe to created persons with colors {} after event {}.", colors, lastSeenEventId);
+        return personChangeFeed.subscribe(colors == null ? Set.of() : Set.copyOf(colors), lastSeenEventId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+}
@@ -1,6 +1,12 @@
 package com.example.personColorAPI.controller;
 
 import com.example.personColorAPI.model.Person;
+import com.example.personColorAPI.model.PersonLookupRequest;
+import com.example.personColorAPI.model.PersonLookupResult;
+import com.example.personColorAPI.service.IdempotencyKeyInProgressException;
+import com.example.personColorAPI.service.IdempotencyKeyReusedException;
+import com.example.personColorAPI.service.IdempotencyService;
+import com.example.personColorAPI.service.IdempotentResult;
 import com.example.personColorAPI.service.PersonService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +15,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controller class that handles HTTP requests related to persons.
@@ -19,16 +26,24 @@ import java.util.List;
 @Slf4j
 public class PersonController {
 
+    /**
+     * The response header that marks a response replayed for a repeated Idempotency-Key.
+     */
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final PersonService personService;
+    private final IdempotencyService idempotencyService;
 
     /**
-     * Constructor for the PersonController that injects the PersonService.
+     * Constructor for the PersonController that injects the PersonService and IdempotencyService.
      *
-     * @param personService The service for managing persons
+     * @param personService      The service for managing persons
+     * @param idempotencyService The service for remembering the results of requests with an Idempotency-Key
      */
     @Autowired
-    public PersonController(PersonService personService) {
+    public PersonController(PersonService personService, IdempotencyService idempotencyService) {
         this.personService = personService;
+        this.idempotencyService = idempotencyService;
     }
 
     /**
@@ -46,6 +61,28 @@ public class PersonController {
         return ResponseEntity.ok(persons);
     }
 
+    /**
+     * Handles the request to fetch only the given fields of all persons.
+     *
+     * @param fields The comma-separated fields to return, for example "personId,name,color"
+     * @return A ResponseEntity containing the selected fields of all persons, a no-content status if there are no persons
+     * or a bad-request status if a field is unknown
+     */
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllPersons(@RequestParam String fields) {
+        log.info("Request received to fetch the fields {} of all persons.", fields);
+        try {
+            List<Map<String, Object>> persons = personService.getAllPersons(fields);
+            if (persons.isEmpty()) {
+                return ResponseEntity.noContent().build();
+            }
+            return ResponseEntity.ok(persons);
+        } catch (IllegalArgumentException e) {
+            log.warn("The fields were rejected: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Handles the request to fetch persons by their ID.
      *
@@ -62,6 +99,29 @@ public class PersonController {
         return ResponseEntity.ok(persons);
     }
 
+    /**
+     * Handles the request to fetch only the given fields of the persons with an ID.
+     *
+     * @param personId The ID of the person to retrieve
+     * @param fields   The comma-separated fields to return, for example "personId,name,color"
+     * @return A ResponseEntity containing the selected fields of the persons with the specified ID, a not-found status
+     * if no persons are found or a bad-request status if a field is unknown
+     */
+    @GetMapping(path = "/{personId}", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getPersonsById(@PathVariable int personId, @RequestParam String fields) {
+        log.info("Request received to fetch the fields {} of persons by ID: {}", fields, personId);
+        try {
+            List<Map<String, Object>> persons = personService.getPersonsById(personId, fields);
+            if (persons.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(persons);
+        } catch (IllegalArgumentException e) {
+            log.warn("The fields were rejected: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Handles the request to fetch persons by their color.
      *
@@ -78,17 +138,80 @@ public class PersonController {
         return ResponseEntity.ok(persons);
     }
 
+    /**
+     * Handles the request to fetch only the given fields of the persons with a color.
+     *
+     * @param color  The color to search for
+     * @param fields The comma-separated fields to return, for example "personId,name,color"
+     * @return A ResponseEntity containing the selected fields of the persons with the specified color, a no-content status
+     * if the list is empty or a bad-request status if a field is unknown
+     */
+    @GetMapping(path = "/color/{color}", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getPersonsByColor(@PathVariable String color, @RequestParam String fields) {
+        log.info("Request received to fetch the fields {} of persons with color: {}", fields, color);
+        try {
+            List<Map<String, Object>> persons = personService.getPersonsByColor(color, fields);
+            if (persons.isEmpty()) {
+                return ResponseEntity.noContent().build();
+            }
+            return ResponseEntity.ok(persons);
+        } catch (IllegalArgumentException e) {
+            log.warn("The fields were rejected: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Handles the request to look up persons by several personIds and colors at once.
+     *
+     * @param request The personIds and colors to look up
+     * @return A ResponseEntity containing the persons grouped by the requested keys or a bad-request status if the keys are invalid
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<PersonLookupResult> lookupPersons(@RequestBody PersonLookupRequest request) {
+        log.info("Request received to look up persons: {}", request);
+        try {
+            return ResponseEntity.ok(personService.lookupPersons(request));
+        } catch (IllegalArgumentException e) {
+            log.warn("The lookup was rejected: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Handles the request to create a new person.
+     * If an Idempotency-Key is sent, a retry with the same key returns the originally created person
+     * without creating it again, marked with the Idempotent-Replayed header.
      *
-     * @param person The person to be created
-     * @return A ResponseEntity containing the created person with a status of 201 (Created)
+     * @param idempotencyKey The optional key identifying retries of the same creation
+     * @param person         The person to be created
+     * @return A ResponseEntity containing the created person with a status of 201 (Created), a bad-request status
+     * if the key is invalid, an unprocessable-entity status if the key was used for a different person or a conflict
+     * status if the key is still being processed on another node
      */
     @PostMapping
-    public ResponseEntity<Person> createPerson(@RequestBody Person person) {
+    public ResponseEntity<Person> createPerson(@RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+                                               @RequestBody Person person) {
         log.info("Request received to create a new person: {}", person);
-        Person createdPerson = personService.addPerson(person);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdPerson);
+        if (idempotencyKey == null) {
+            Person createdPerson = personService.addPerson(person);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdPerson);
+        }
+        try {
+            IdempotentResult result = idempotencyService.createOnce(idempotencyKey, person, personService::addPerson);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.replayed()))
+                    .body(result.person());
+        } catch (IllegalArgumentException e) {
+            log.warn("The Idempotency-Key was rejected: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IdempotencyKeyReusedException e) {
+            log.warn(e.getMessage());
+            return ResponseEntity.unprocessableEntity().build();
+        } catch (IdempotencyKeyInProgressException e) {
+            log.warn(e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 }
 
@@ -0,0 +1,14 @@
+package com.example.personColorAPI.model;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The outcome of replacing the color mapping at runtime.
+ *
+ * @param colors           The color mapping that is now active
+ * @param changedPersonIds The personIds whose color has changed
+ * @param updatedPersons   The number of stored persons that were recolored
+ */
+public record ColorMappingUpdate(Map<Integer, String> colors, Set<Integer> changedPersonIds, int updatedPersons) {
+}
@@ -0,0 +1,79 @@
+package com.example.personColorAPI.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Represents an idempotency key stored so that retries are recognized after a restart and on other nodes.
+ * The record is inserted before the person is created, so the primary key lets only one node reserve a key,
+ * and it is completed with the id of the created person afterwards.
+ * The record is always new until it has been persisted or loaded, so saving it inserts and never merges.
+ */
+@Entity
+@Getter
+@Setter
+public class IdempotencyRecord implements Persistable<String> {
+
+    /**
+     * The person id of a reserved key whose person has not been created yet.
+     */
+    public static final long PENDING = 0L;
+
+    /**
+     * The Idempotency-Key sent by the client.
+     */
+    @Id
+    private String idempotencyKey;
+
+    /**
+     * The generated id of the person created for the key, or {@link #PENDING} while the person is being created.
+     */
+    private long personEntityId;
+
+    /**
+     * The time at which the key was reserved.
+     */
+    private Instant createdAt;
+
+    /**
+     * Whether the record is stored in the database.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean stored;
+
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !stored;
+    }
+
+    /**
+     * Returns whether the person of the key has been created.
+     *
+     * @return true if the record holds the id of the created person
+     */
+    public boolean isCompleted() {
+        return personEntityId != PENDING;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markStored() {
+        stored = true;
+    }
+}
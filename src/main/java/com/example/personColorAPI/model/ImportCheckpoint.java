@@ -0,0 +1,73 @@
+package com.example.personColorAPI.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Version;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Represents the progress of the incremental import of a growing input file.
+ * The checkpoint is committed in the same transaction as the persons of each batch,
+ * so after a crash the import resumes exactly after the last committed row.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+public class ImportCheckpoint {
+    /**
+     * The absolute path of the imported file.
+     */
+    @Id
+    private String fileKey;
+
+    /**
+     * The byte offset directly after the last committed row.
+     */
+    private long byteOffset;
+
+    /**
+     * The number of lines consumed up to the byte offset, used to number the following lines.
+     */
+    private long lineCount;
+
+    /**
+     * The number of persons imported from the file.
+     */
+    private long recordCount;
+
+    /**
+     * The number of bytes at the start of the file covered by the head hash.
+     */
+    private int headLength;
+
+    /**
+     * The hex encoded SHA-256 hash of the first bytes of the file, used to detect a rotated file.
+     */
+    private String headHash;
+
+    /**
+     * The time of the last committed batch.
+     */
+    private Instant updatedAt;
+
+    /**
+     * The version of the checkpoint. A node committing a batch for an outdated checkpoint fails
+     * and rolls back its batch, so two nodes never import the same rows.
+     */
+    @Version
+    private Long version;
+
+    /**
+     * Creates a checkpoint at the start of the given file.
+     *
+     * @param fileKey The absolute path of the imported file.
+     */
+    public ImportCheckpoint(String fileKey) {
+        this.fileKey = fileKey;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.personColorAPI.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Version;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Represents a lease that grants one node of a cluster the exclusive right to run an import.
+ * The lease belongs to its owner until it expires, and the owner extends it with a heartbeat while it works.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+public class ImportLease {
+    /**
+     * The name of the lease, which identifies the guarded work.
+     */
+    @Id
+    private String name;
+
+    /**
+     * The node that holds the lease.
+     */
+    private String owner;
+
+    /**
+     * The time at which the lease expires unless the owner renews it.
+     */
+    private Instant expiresAt;
+
+    /**
+     * The version of the lease row. A new lease row is always inserted and never merged into an existing one,
+     * so two nodes creating the lease at the same time cannot both succeed.
+     */
+    @Version
+    private Long version;
+
+    /**
+     * Creates a new lease for the given owner.
+     *
+     * @param name      The name of the lease.
+     * @param owner     The node that holds the lease.
+     * @param expiresAt The time at which the lease expires.
+     */
+    public ImportLease(String name, String owner, Instant expiresAt) {
+        this.name = name;
+        this.owner = owner;
+        this.expiresAt = expiresAt;
+    }
+}
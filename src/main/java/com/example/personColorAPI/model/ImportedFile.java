@@ -0,0 +1,49 @@
+package com.example.personColorAPI.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Represents an input file that has already been imported completely.
+ * The file is identified by the SHA-256 hash of its content, so a file is imported only once
+ * no matter which node imports it or under which name it is delivered.
+ */
+@Entity
+@Getter
+@Setter
+public class ImportedFile {
+    /**
+     * The hex encoded SHA-256 hash of the file content.
+     */
+    @Id
+    private String sha256;
+
+    /**
+     * The name of the file when it was imported.
+     */
+    private String fileName;
+
+    /**
+     * The size of the file in bytes.
+     */
+    private long size;
+
+    /**
+     * The number of persons read from the file.
+     */
+    private int rowCount;
+
+    /**
+     * The node that imported the file.
+     */
+    private String importedBy;
+
+    /**
+     * The time at which the import of the file finished.
+     */
+    private Instant importedAt;
+}
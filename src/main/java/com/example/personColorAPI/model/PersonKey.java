@@ -0,0 +1,23 @@
+package com.example.personColorAPI.model;
+
+/**
+ * Represents the natural key of a Person.
+ * Two persons with the same name, lastname, zipcode and personId are considered duplicates.
+ *
+ * @param name     The first name of the person
+ * @param lastname The last name of the person
+ * @param zipcode  The postal code of the person
+ * @param personId The person's unique identifier
+ */
+public record PersonKey(String name, String lastname, String zipcode, int personId) {
+
+    /**
+     * Creates the natural key of the given person.
+     *
+     * @param person The person to create the key for
+     * @return The natural key of the person
+     */
+    public static PersonKey of(Person person) {
+        return new PersonKey(person.getName(), person.getLastname(), person.getZipcode(), person.getPersonId());
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.personColorAPI.model;
+
+import java.util.List;
+
+/**
+ * A request to look up persons by several keys at once.
+ * Either list may be omitted or empty.
+ *
+ * @param personIds The personIds to look up
+ * @param colors    The colors to look up
+ */
+public record PersonLookupRequest(List<Integer> personIds, List<String> colors) {
+}
@@ -0,0 +1,14 @@
+package com.example.personColorAPI.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The persons found for a {@link PersonLookupRequest}, grouped by the requested keys.
+ * Every requested key is contained, with an empty list if no person matches it.
+ *
+ * @param byPersonId The persons per requested personId
+ * @param byColor    The persons per requested color
+ */
+public record PersonLookupResult(Map<Integer, List<Person>> byPersonId, Map<String, List<Person>> byColor) {
+}
@@ -0,0 +1,76 @@
+package com.example.personColorAPI.monitoring;
+
+import com.example.personColorAPI.config.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Reports the load of the connection pool of the primary database.
+ * With a read replica the primary pool of the {@link ReadWriteRoutingDataSource} is used, otherwise the
+ * application data source. If the data source is not a Hikari pool or the pool has not been started yet,
+ * the pool is reported as idle.
+ */
+@Component
+public class ConnectionPoolMonitor {
+
+    private final ObjectProvider<ReadWriteRoutingDataSource> routingDataSource;
+    private final ObjectProvider<DataSource> dataSource;
+
+    /**
+     * Constructor for the ConnectionPoolMonitor that injects the data sources, resolved on first use.
+     *
+     * @param routingDataSource Provider for the routing data source, available only with a read replica
+     * @param dataSource        Provider for the application data source
+     */
+    public ConnectionPoolMonitor(ObjectProvider<ReadWriteRoutingDataSource> routingDataSource,
+                                 ObjectProvider<DataSource> dataSource) {
+        this.routingDataSource = routingDataSource;
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Returns the number of threads waiting for a connection of the primary pool.
+     *
+     * @return The number of waiting threads, or 0 if the pool is unknown
+     */
+    public int getThreadsAwaitingConnection() {
+        HikariPoolMXBean pool = pool();
+        return pool == null ? 0 : pool.getThreadsAwaitingConnection();
+    }
+
+    /**
+     * Returns the number of connections of the primary pool that are not in use and can still be opened.
+     *
+     * @return The number of free connections, or {@link Integer#MAX_VALUE} if the pool is unknown
+     */
+    public int getFreeConnections() {
+        HikariDataSource hikari = primaryPool();
+        HikariPoolMXBean pool = hikari == null ? null : hikari.getHikariPoolMXBean();
+        return pool == null ? Integer.MAX_VALUE : hikari.getMaximumPoolSize() - pool.getActiveConnections();
+    }
+
+    /**
+     * Returns the maximum size of the primary pool.
+     *
+     * @return The maximum number of connections, or {@link Integer#MAX_VALUE} if the pool is unknown
+     */
+    public int getMaximumPoolSize() {
+        HikariDataSource hikari = primaryPool();
+        return hikari == null ? Integer.MAX_VALUE : hikari.getMaximumPoolSize();
+    }
+
+    private HikariPoolMXBean pool() {
+        HikariDataSource hikari = primaryPool();
+        return hikari == null ? null : hikari.getHikariPoolMXBean();
+    }
+
+    private HikariDataSource primaryPool() {
+        ReadWriteRoutingDataSource routing = routingDataSource.getIfAvailable();
+        DataSource primary = routing != null ? routing.getPrimary() : dataSource.getIfAvailable();
+        return primary instanceof HikariDataSource hikari ? hikari : null;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.personColorAPI.monitoring;
+
+import com.example.personColorAPI.config.FlightRecorderConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Starts an always-on Java Flight Recorder recording if "jfr.enabled" is true.
+ * The recording uses the JDK default profile, so GC, lock and I/O events can be correlated with the custom events,
+ * combined with the settings profile of the custom events shipped with the application. It keeps the data of the
+ * configured age and size on disk, can be dumped at any time with {@code jcmd <pid> JFR.dump name=person-color-api},
+ * and is written to the configured dump path when the application stops.
+ */
+@Component
+@Slf4j
+public class ContinuousFlightRecording {
+
+    static final String RECORDING_NAME = "person-color-api";
+
+    private final FlightRecorderConfig flightRecorderConfig;
+    private Recording recording;
+
+    /**
+     * Constructor for the ContinuousFlightRecording that injects the FlightRecorderConfig.
+     *
+     * @param flightRecorderConfig Configuration for the settings profile, the retention and the dump path
+     */
+    public ContinuousFlightRecording(FlightRecorderConfig flightRecorderConfig) {
+        this.flightRecorderConfig = flightRecorderConfig;
+    }
+
+    /**
+     * Starts the recording before the startup import runs, so the import is recorded as well.
+     */
+    @PostConstruct
+    public void start() {
+        if (!flightRecorderConfig.isEnabled()) {
+            return;
+        }
+        if (!FlightRecorder.isAvailable()) {
+            log.warn("Java Flight Recorder is not available, no recording is started.");
+            return;
+        }
+        try {
+            Recording started = new Recording(loadSettings(flightRecorderConfig.getSettings()));
+            started.setName(RECORDING_NAME);
+            started.setToDisk(true);
+            started.setMaxAge(Duration.ofMillis(flightRecorderConfig.getMaxAgeMillis()));
+            started.setMaxSize(flightRecorderConfig.getMaxSizeBytes());
+            Path dumpPath = Path.of(flightRecorderConfig.getDumpPath()).toAbsolutePath();
+            Files.createDirectories(dumpPath.getParent());
+            started.setDestination(dumpPath);
+            started.setDumpOnExit(true);
+            started.start();
+            recording = started;
+            log.info("Flight recording {} started, it is written to {} when the application stops.", RECORDING_NAME, dumpPath);
+        } catch (IOException | ParseException e) {
+            log.warn("The flight recording could not be started: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the recording and writes it to the dump path.
+     */
+    @PreDestroy
+    public void stop() {
+        if (recording != null) {
+            recording.stop();
+            recording.close();
+            recording = null;
+        }
+    }
+
+    /**
+     * Combines the settings of the JDK default profile with the settings profile at the given classpath location.
+     *
+     * @param location The classpath location of the settings profile
+     * @return The combined settings, where the settings profile overrides the default profile
+     * @throws IOException    If a profile cannot be read
+     * @throws ParseException If a profile is not a valid settings file
+     */
+    static Map<String, String> loadSettings(String location) throws IOException, ParseException {
+        Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+        try (Reader reader = new InputStreamReader(new ClassPathResource(location).getInputStream(), StandardCharsets.UTF_8)) {
+            settings.putAll(Configuration.create(reader).getSettings());
+        }
+        return settings;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.personColorAPI.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for a handled HTTP request.
+ */
+@Name(HttpRequestEvent.NAME)
+@Label("HTTP Request")
+@Category({"PersonColorAPI", "Web"})
+@Description("An HTTP request handled by the application")
+@StackTrace(false)
+public class HttpRequestEvent extends Event {
+
+    /**
+     * The name of the event in the recording and the settings profile.
+     */
+    public static final String NAME = "com.example.personColorAPI.HttpRequest";
+
+    /**
+     * The HTTP method of the request.
+     */
+    @Label("Method")
+    public String method;
+
+    /**
+     * The URI of the request.
+     */
+    @Label("URI")
+    public String uri;
+
+    /**
+     * The status code of the response.
+     */
+    @Label("Status")
+    public int status;
+
+    /**
+     * The number of SQL statements executed by the request.
+     */
+    @Label("SQL Statements")
+    public long statements;
+}
@@ -0,0 +1,98 @@
+package com.example.personColorAPI.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder event for a batch of persons checked for duplicates or inserted by an import.
+ */
+@Name(ImportBatchEvent.NAME)
+@Label("Import Batch")
+@Category({"PersonColorAPI", "Import"})
+@Description("A batch of persons checked for duplicates or inserted by an import")
+@StackTrace(false)
+public class ImportBatchEvent extends Event {
+
+    /**
+     * The name of the event in the recording and the settings profile.
+     */
+    public static final String NAME = "com.example.personColorAPI.ImportBatch";
+
+    /**
+     * The phase in which the persons of a batch are checked for duplicates.
+     */
+    public static final String DEDUPE = "dedupe";
+
+    /**
+     * The phase in which the persons of a batch are inserted.
+     */
+    public static final String INSERT = "insert";
+
+    /**
+     * The phase of the import, "dedupe" or "insert".
+     */
+    @Label("Phase")
+    public String phase;
+
+    /**
+     * The import the batch belongs to, "csv" or "tail".
+     */
+    @Label("Source")
+    public String source;
+
+    /**
+     * The number of persons in the batch.
+     */
+    @Label("Rows")
+    public int rows;
+
+    /**
+     * The number of persons of the batch skipped as duplicates.
+     */
+    @Label("Duplicates")
+    public int duplicates;
+
+    /**
+     * The time the batch waited for a permit of the import governor.
+     */
+    @Label("Governor Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    public long governorWait;
+
+    /**
+     * Creates an event and starts its timing.
+     *
+     * @param source The import the batch belongs to, "csv" or "tail"
+     * @param phase  The phase of the import, {@link #DEDUPE} or {@link #INSERT}
+     * @return The started event
+     */
+    public static ImportBatchEvent start(String source, String phase) {
+        ImportBatchEvent event = new ImportBatchEvent();
+        event.source = source;
+        event.phase = phase;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the timing and commits the event if it is enabled and exceeds the configured threshold.
+     *
+     * @param rows              The number of persons in the batch
+     * @param duplicates        The number of persons of the batch skipped as duplicates
+     * @param governorWaitNanos The time the batch waited for a permit of the import governor in nanoseconds
+     */
+    public void complete(int rows, int duplicates, long governorWaitNanos) {
+        end();
+        if (shouldCommit()) {
+            this.rows = rows;
+            this.duplicates = duplicates;
+            this.governorWait = governorWaitNanos;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.personColorAPI.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for a chunk of rows read and parsed from a CSV file.
+ */
+@Name(ParseChunkEvent.NAME)
+@Label("CSV Parse Chunk")
+@Category({"PersonColorAPI", "Import"})
+@Description("A chunk of rows read and parsed from a CSV file")
+@StackTrace(false)
+public class ParseChunkEvent extends Event {
+
+    /**
+     * The name of the event in the recording and the settings profile.
+     */
+    public static final String NAME = "com.example.personColorAPI.ParseChunk";
+
+    /**
+     * The file the rows were read from.
+     */
+    @Label("File")
+    public String file;
+
+    /**
+     * The number of rows read, including rejected and duplicate rows.
+     */
+    @Label("Rows")
+    public int rows;
+
+    /**
+     * The number of bytes read from the file while the chunk was parsed, before decompression. The figure is
+     * approximate: the buffers of the reader read ahead by up to 64 KB, so those bytes count towards the chunk
+     * in which they were read, and a small file reports all of its bytes in its first chunk.
+     */
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
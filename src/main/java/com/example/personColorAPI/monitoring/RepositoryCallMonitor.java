@@ -0,0 +1,85 @@
+package com.example.personColorAPI.monitoring;
+
+import com.example.personColorAPI.config.MonitoringConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Measures every call of a repository method and logs calls slower than the configured threshold
+ * together with the repository method name and the number of SQL statements they executed.
+ * Every call is also recorded as a {@link RepositoryQueryEvent} in Java Flight Recorder.
+ */
+@Slf4j
+public class RepositoryCallMonitor implements MethodInterceptor {
+
+    private final String repositoryName;
+    private final ObjectProvider<MonitoringConfig> monitoringConfig;
+
+    /**
+     * Creates a monitor for the given repository interface.
+     *
+     * @param repositoryInterface The monitored repository interface
+     * @param monitoringConfig    Provider for the slow query threshold
+     */
+    public RepositoryCallMonitor(Class<?> repositoryInterface, ObjectProvider<MonitoringConfig> monitoringConfig) {
+        this.repositoryName = repositoryInterface.getSimpleName();
+        this.monitoringConfig = monitoringConfig;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        RepositoryQueryEvent event = new RepositoryQueryEvent();
+        event.begin();
+        long start = System.nanoTime();
+        long statementsBefore = SqlStatementCounter.currentCount();
+        Object result = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } finally {
+            long durationMillis = (System.nanoTime() - start) / 1_000_000;
+            long statements = SqlStatementCounter.currentCount() - statementsBefore;
+            long slowQueryMillis = monitoringConfig.getObject().getSlowQueryMillis();
+            if (durationMillis >= slowQueryMillis) {
+                log.warn("Slow query: {}.{} took {} ms with {} SQL statements.", repositoryName,
+                        invocation.getMethod().getName(), durationMillis, statements);
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.repository = repositoryName;
+                event.method = invocation.getMethod().getName();
+                event.rows = rowCount(result);
+                event.statements = statements;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of rows in the result of a repository method, or -1 for a scalar result.
+     */
+    static int rowCount(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number || result instanceof Boolean) {
+            return -1;
+        }
+        return 1;
+    }
+}
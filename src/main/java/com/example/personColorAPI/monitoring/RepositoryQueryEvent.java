@@ -0,0 +1,48 @@
+package com.example.personColorAPI.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for a call of a Spring Data repository method.
+ */
+@Name(RepositoryQueryEvent.NAME)
+@Label("Repository Query")
+@Category({"PersonColorAPI", "Database"})
+@Description("A call of a Spring Data repository method")
+@StackTrace(false)
+public class RepositoryQueryEvent extends Event {
+
+    /**
+     * The name of the event in the recording and the settings profile.
+     */
+    public static final String NAME = "com.example.personColorAPI.RepositoryQuery";
+
+    /**
+     * The simple name of the repository interface.
+     */
+    @Label("Repository")
+    public String repository;
+
+    /**
+     * The name of the called repository method.
+     */
+    @Label("Method")
+    public String method;
+
+    /**
+     * The number of returned rows, or -1 if the method returns a scalar such as a count or a flag.
+     */
+    @Label("Rows Returned")
+    public int rows;
+
+    /**
+     * The number of SQL statements executed by the call.
+     */
+    @Label("SQL Statements")
+    public long statements;
+}
@@ -0,0 +1,43 @@
+package com.example.personColorAPI.monitoring;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps an exponentially weighted moving average of the duration of recent requests.
+ * The average is recorded by the {@link SqlStatementLoggingFilter} and read by components that should
+ * yield to online traffic, such as the import governor. Without requests for a while the average is
+ * considered stale and reported as 0, so a single slow request does not throttle imports forever.
+ */
+@Component
+public class RequestLatencyTracker {
+
+    static final double SMOOTHING = 0.2;
+    static final long STALE_AFTER_MILLIS = 5_000;
+
+    private double averageMillis;
+    private long lastRecordedNanos;
+    private boolean recorded;
+
+    /**
+     * Records the duration of a completed request.
+     *
+     * @param durationMillis The duration of the request in milliseconds
+     */
+    public synchronized void record(long durationMillis) {
+        averageMillis = recorded ? averageMillis + SMOOTHING * (durationMillis - averageMillis) : durationMillis;
+        lastRecordedNanos = System.nanoTime();
+        recorded = true;
+    }
+
+    /**
+     * Returns the moving average of the recent request durations.
+     *
+     * @return The average duration in milliseconds, or 0 if no request completed within the last seconds
+     */
+    public synchronized double getAverageMillis() {
+        if (!recorded || System.nanoTime() - lastRecordedNanos > STALE_AFTER_MILLIS * 1_000_000) {
+            return 0;
+        }
+        return averageMillis;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.personColorAPI.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on each thread.
+ * The count of a thread only grows; the number of statements of an operation is the difference between
+ * the count after and before it. The statements are passed on unchanged.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> STATEMENTS = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * Returns the number of SQL statements prepared by the current thread so far.
+     *
+     * @return The statement count of the current thread
+     */
+    public static long currentCount() {
+        return STATEMENTS.get()[0];
+    }
+}
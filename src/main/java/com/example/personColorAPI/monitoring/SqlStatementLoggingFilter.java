@@ -0,0 +1,68 @@
+package com.example.personColorAPI.monitoring;
+
+import com.example.personColorAPI.config.MonitoringConfig;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Logs the number of SQL statements and the duration of every request.
+ * Requests exceeding the configured statement count or duration are logged as warnings.
+ * The duration of every request that is not processed asynchronously is recorded in the {@link RequestLatencyTracker},
+ * and every request is recorded as an {@link HttpRequestEvent} in Java Flight Recorder.
+ */
+@Component
+@Slf4j
+public class SqlStatementLoggingFilter extends OncePerRequestFilter {
+
+    private final MonitoringConfig monitoringConfig;
+    private final RequestLatencyTracker requestLatencyTracker;
+
+    /**
+     * Constructor for the SqlStatementLoggingFilter that injects the MonitoringConfig and the RequestLatencyTracker.
+     *
+     * @param monitoringConfig      Configuration for the warning thresholds
+     * @param requestLatencyTracker The tracker receiving the duration of every request
+     */
+    public SqlStatementLoggingFilter(MonitoringConfig monitoringConfig, RequestLatencyTracker requestLatencyTracker) {
+        this.monitoringConfig = monitoringConfig;
+        this.requestLatencyTracker = requestLatencyTracker;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        HttpRequestEvent event = new HttpRequestEvent();
+        event.begin();
+        long start = System.nanoTime();
+        long statementsBefore = SqlStatementCounter.currentCount();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long durationMillis = (System.nanoTime() - start) / 1_000_000;
+            long statements = SqlStatementCounter.currentCount() - statementsBefore;
+            event.end();
+            if (event.shouldCommit()) {
+                event.method = request.getMethod();
+                event.uri = request.getRequestURI();
+                event.status = response.getStatus();
+                event.statements = statements;
+                event.commit();
+            }
+            if (!request.isAsyncStarted()) {
+                requestLatencyTracker.record(durationMillis);
+            }
+            if (statements > monitoringConfig.getMaxStatementsPerRequest() || durationMillis >= monitoringConfig.getSlowRequestMillis()) {
+                log.warn("{} {} executed {} SQL statements in {} ms.", request.getMethod(), request.getRequestURI(), statements, durationMillis);
+            } else {
+                log.debug("{} {} executed {} SQL statements in {} ms.", request.getMethod(), request.getRequestURI(), statements, durationMillis);
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.personColorAPI.monitoring;
+
+import com.example.personColorAPI.config.MonitoringConfig;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Configuration of the SQL statement counting and the slow query log.
+ * The {@link SqlStatementCounter} is registered with Hibernate, and every Spring Data repository is
+ * wrapped with a {@link RepositoryCallMonitor} that logs slow calls with the repository method name.
+ */
+@Configuration
+public class StatementCountingConfiguration {
+
+    /**
+     * Registers the statement counter with Hibernate.
+     *
+     * @return A customizer adding the statement counter to the Hibernate properties
+     */
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+
+    /**
+     * Adds the repository call monitor to every repository proxy.
+     *
+     * @param monitoringConfig Provider for the monitoring thresholds, resolved on first use
+     * @return A post processor customizing the repository factories
+     */
+    @Bean
+    public static BeanPostProcessor repositoryCallMonitorPostProcessor(ObjectProvider<MonitoringConfig> monitoringConfig) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(
+                                    new RepositoryCallMonitor(repositoryInformation.getRepositoryInterface(), monitoringConfig))));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.personColorAPI.repository;
+
+import com.example.personColorAPI.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Repository interface for handling database operations related to the IdempotencyRecord entity.
+ */
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    /**
+     * Deletes all records created before the given time.
+     *
+     * @param cutoff The creation time before which records are expired.
+     * @return The number of deleted records.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteByCreatedAtBefore(@Param("cutoff") Instant cutoff);
+
+    /**
+     * Completes a reserved key with the id of the created person.
+     *
+     * @param key            The reserved Idempotency-Key.
+     * @param personEntityId The generated id of the created person.
+     * @return The number of updated records, 0 if the reservation no longer exists.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.personEntityId = :personEntityId WHERE r.idempotencyKey = :key")
+    int complete(@Param("key") String key, @Param("personEntityId") long personEntityId);
+
+    /**
+     * Deletes the record of the key if it is still the one created at the given time, so a record that was
+     * replaced by another node in the meantime is kept.
+     *
+     * @param key       The Idempotency-Key.
+     * @param createdAt The creation time of the record to delete.
+     * @return The number of deleted records.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key AND r.createdAt = :createdAt")
+    int deleteRecord(@Param("key") String key, @Param("createdAt") Instant createdAt);
+}
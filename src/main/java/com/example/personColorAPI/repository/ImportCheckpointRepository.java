@@ -0,0 +1,11 @@
+package com.example.personColorAPI.repository;
+
+import com.example.personColorAPI.model.ImportCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Repository interface for handling database operations related to the ImportCheckpoint entity.
+ * The checkpoints are looked up by the absolute path of the imported file, which is their id.
+ */
+public interface ImportCheckpointRepository extends JpaRepository<ImportCheckpoint, String> {
+}
@@ -0,0 +1,46 @@
+package com.example.personColorAPI.repository;
+
+import com.example.personColorAPI.model.ImportLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Repository interface for handling database operations related to the ImportLease entity.
+ * The lease is taken and renewed with conditional updates, so the database decides which node holds it.
+ */
+public interface ImportLeaseRepository extends JpaRepository<ImportLease, String> {
+    /**
+     * Takes the lease for the given owner if the owner already holds it or if it has expired.
+     *
+     * @param name      The name of the lease.
+     * @param owner     The node that wants to hold the lease.
+     * @param now       The current time.
+     * @param expiresAt The new expiry time of the lease.
+     * @return 1 if the owner holds the lease afterwards; 0 if another node holds it or the lease does not exist.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ImportLease l SET l.owner = :owner, l.expiresAt = :expiresAt "
+            + "WHERE l.name = :name AND (l.owner = :owner OR l.expiresAt < :now)")
+    int claim(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now,
+              @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Sets the expiry time of the lease if it is held by the given owner.
+     * This renews the lease, or releases it when the expiry time is the current time.
+     *
+     * @param name      The name of the lease.
+     * @param owner     The node that holds the lease.
+     * @param expiresAt The new expiry time of the lease.
+     * @return 1 if the lease was updated; 0 if the owner no longer holds it.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ImportLease l SET l.expiresAt = :expiresAt WHERE l.name = :name AND l.owner = :owner")
+    int extend(@Param("name") String name, @Param("owner") String owner, @Param("expiresAt") Instant expiresAt);
+}
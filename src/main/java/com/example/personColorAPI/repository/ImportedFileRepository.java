@@ -0,0 +1,21 @@
+package com.example.personColorAPI.repository;
+
+import com.example.personColorAPI.model.ImportedFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for handling database operations related to the ImportedFile entity.
+ * The records are looked up by the SHA-256 hash of the file content, which is their id.
+ */
+public interface ImportedFileRepository extends JpaRepository<ImportedFile, String> {
+
+    /**
+     * Finds the most recent record of a file imported under the given name.
+     *
+     * @param fileName The name of the file
+     * @return The latest record of the file, if it has been imported
+     */
+    Optional<ImportedFile> findFirstByFileNameOrderByImportedAtDesc(String fileName);
+}
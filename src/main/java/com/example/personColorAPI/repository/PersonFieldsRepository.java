@@ -0,0 +1,43 @@
+package com.example.personColorAPI.repository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repository fragment for reading only selected fields of persons.
+ * Only the columns of the requested fields are selected, and each person is returned as a map from field name
+ * to value in the order of the requested fields.
+ */
+public interface PersonFieldsRepository {
+
+    /**
+     * The fields of a person that can be selected, in the order of the Person entity.
+     */
+    List<String> FIELDS = List.of("id", "personId", "name", "lastname", "zipcode", "city", "color");
+
+    /**
+     * Finds the given fields of all persons.
+     *
+     * @param fields The fields to select, each contained in {@link #FIELDS}.
+     * @return The selected fields of all persons.
+     */
+    List<Map<String, Object>> findAllFields(List<String> fields);
+
+    /**
+     * Finds the given fields of the persons with the given personId.
+     *
+     * @param fields   The fields to select, each contained in {@link #FIELDS}.
+     * @param personId The unique identifier of the person.
+     * @return The selected fields of the persons matching the given personId.
+     */
+    List<Map<String, Object>> findFieldsByPersonId(List<String> fields, int personId);
+
+    /**
+     * Finds the given fields of the persons with the given color.
+     *
+     * @param fields The fields to select, each contained in {@link #FIELDS}.
+     * @param color  The color associated with the person.
+     * @return The selected fields of the persons matching the given color.
+     */
+    List<Map<String, Object>> findFieldsByColor(List<String> fields, String color);
+}
@@ -0,0 +1,73 @@
+package com.example.personColorAPI.repository;
+
+import com.example.personColorAPI.model.Person;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of the {@link PersonFieldsRepository} with a Criteria tuple query.
+ * The query selects the columns of the requested fields only, so the other columns are neither read
+ * from the database nor held in the persistence context.
+ */
+public class PersonFieldsRepositoryImpl implements PersonFieldsRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findAllFields(List<String> fields) {
+        return findFields(fields, null, null);
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByPersonId(List<String> fields, int personId) {
+        return findFields(fields, "personId", personId);
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByColor(List<String> fields, String color) {
+        return findFields(fields, "color", color);
+    }
+
+    /**
+     * Selects the given fields of the persons whose attribute equals the value, or of all persons if no attribute is given.
+     */
+    private List<Map<String, Object>> findFields(List<String> fields, String attribute, Object value) {
+        if (fields.isEmpty() || !FIELDS.containsAll(fields)) {
+            throw new IllegalArgumentException("Unknown or missing fields: " + fields);
+        }
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Person> person = query.from(Person.class);
+
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            selections.add(person.get(field).alias(field));
+        }
+        query.multiselect(selections);
+        if (attribute != null) {
+            query.where(criteriaBuilder.equal(person.get(attribute), value));
+        }
+
+        List<Tuple> tuples = entityManager.createQuery(query).getResultList();
+        List<Map<String, Object>> result = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (String field : fields) {
+                values.put(field, tuple.get(field));
+            }
+            result.add(values);
+        }
+        return result;
+    }
+}
@@ -1,15 +1,23 @@
 package com.example.personColorAPI.repository;
 
 import com.example.personColorAPI.model.Person;
+import com.example.personColorAPI.model.PersonKey;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Repository interface for handling database operations related to the Person entity.
- * Extends JpaRepository to provide CRUD operations and custom query methods.
+ * Extends JpaRepository to provide CRUD operations and custom query methods, and the
+ * {@link PersonFieldsRepository} to read only selected fields.
  */
-public interface PersonRepository extends JpaRepository<Person, Long> {
+public interface PersonRepository extends JpaRepository<Person, Long>, PersonFieldsRepository {
     /**
      * Finds persons by their unique personId.
      *
@@ -26,6 +34,29 @@ public interface PersonRepository extends JpaRepository<Person, Long> {
      */
     List<Person> findByColor(String color);
 
+    /**
+     * Finds the persons whose personId is contained in the given collection.
+     *
+     * @param personIds The unique identifiers of the persons.
+     * @return A list of persons matching one of the given personIds.
+     */
+    List<Person> findByPersonIdIn(Collection<Integer> personIds);
+
+    /**
+     * Finds the persons whose color is contained in the given collection.
+     *
+     * @param colors The colors associated with the persons.
+     * @return A list of persons matching one of the given colors.
+     */
+    List<Person> findByColorIn(Collection<String> colors);
+
+    /**
+     * Checks if any person is stored, without counting all rows.
+     *
+     * @return true if the table holds at least one person; false otherwise.
+     */
+    boolean existsByIdIsNotNull();
+
     /**
      * Checks if a person with the given name, lastname, zipcode, and personId already exists.
      *
@@ -36,4 +67,50 @@ public interface PersonRepository extends JpaRepository<Person, Long> {
      * @return true if such a person already exists; false otherwise.
      */
     boolean existsByNameAndLastnameAndZipcodeAndPersonId(String name, String lastname, String zipcode, int personId);
+
+    /**
+     * Finds the natural keys of the persons with one of the given lastnames and one of the given zipcodes.
+     * Only the key columns are read, not the entities.
+     *
+     * @param lastnames The lastnames to search for.
+     * @param zipcodes  The zipcodes to search for.
+     * @return The natural keys of the matching persons.
+     */
+    @Query("SELECT new com.example.personColorAPI.model.PersonKey(p.name, p.lastname, p.zipcode, p.personId) "
+            + "FROM Person p WHERE p.lastname IN :lastnames AND p.zipcode IN :zipcodes")
+    List<PersonKey> findKeysByLastnameInAndZipcodeIn(@Param("lastnames") Collection<String> lastnames,
+                                                     @Param("zipcodes") Collection<String> zipcodes);
+
+    /**
+     * Returns which of the given natural keys are already stored, with one query for the whole collection
+     * instead of one query per key.
+     *
+     * @param keys The natural keys to check.
+     * @return The subset of the keys that already exist.
+     */
+    default Set<PersonKey> findExistingKeys(Collection<PersonKey> keys) {
+        if (keys.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> lastnames = new HashSet<>();
+        Set<String> zipcodes = new HashSet<>();
+        for (PersonKey key : keys) {
+            lastnames.add(key.lastname());
+            zipcodes.add(key.zipcode());
+        }
+        Set<PersonKey> existing = new HashSet<>(findKeysByLastnameInAndZipcodeIn(lastnames, zipcodes));
+        existing.retainAll(keys instanceof Set<?> ? keys : new HashSet<>(keys));
+        return existing;
+    }
+
+    /**
+     * Sets the color of all persons whose personId is contained in the given collection.
+     *
+     * @param color     The new color.
+     * @param personIds The personIds of the persons to update.
+     * @return The number of updated persons.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Person p SET p.color = :color WHERE p.personId IN :personIds")
+    int updateColorByPersonIdIn(@Param("color") String color, @Param("personIds") Collection<Integer> personIds);
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.example.personColorAPI.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Deduplicates equal strings so that repeated values share a single instance.
+ * The dictionary holds at most {@code capacity} distinct values; once it is full, unknown values
+ * are returned unchanged, so a high-cardinality field cannot grow the dictionary without bound.
+ * Instances are not thread-safe and are meant to be used for a single parse run.
+ */
+class BoundedStringInterner {
+
+    private final int capacity;
+    private final Map<String, String> dictionary;
+
+    /**
+     * Creates an interner that holds at most the given number of distinct values.
+     *
+     * @param capacity The maximum number of distinct values to keep
+     */
+    BoundedStringInterner(int capacity) {
+        this.capacity = Math.max(capacity, 0);
+        this.dictionary = new HashMap<>();
+    }
+
+    /**
+     * Returns the shared instance of the given value.
+     *
+     * @param value The value to intern
+     * @return A previously seen instance equal to the value, or the value itself
+     */
+    String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String shared = dictionary.get(value);
+        if (shared != null) {
+            return shared;
+        }
+        if (dictionary.size() < capacity) {
+            dictionary.put(value, value);
+        }
+        return value;
+    }
+}
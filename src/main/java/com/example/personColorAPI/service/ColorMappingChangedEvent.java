@@ -0,0 +1,26 @@
+package com.example.personColorAPI.service;
+
+import com.example.personColorAPI.config.ColorConfig;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Published after the color mapping has been replaced and the stored persons have been recolored.
+ * Components caching persons or colors listen to this event to update the affected entries.
+ *
+ * @param changedPersonIds The personIds whose color has changed
+ * @param colors           The new color mapping
+ */
+public record ColorMappingChangedEvent(Set<Integer> changedPersonIds, Map<Integer, String> colors) {
+
+    /**
+     * Returns the new color of the given personId.
+     *
+     * @param personId The personId
+     * @return The mapped color, or {@link ColorConfig#UNKNOWN_COLOR} if the personId is no longer mapped
+     */
+    public String colorOf(int personId) {
+        return colors.getOrDefault(personId, ColorConfig.UNKNOWN_COLOR);
+    }
+}
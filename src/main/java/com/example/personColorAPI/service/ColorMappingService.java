@@ -0,0 +1,135 @@
+package com.example.personColorAPI.service;
+
+import com.example.personColorAPI.config.ColorConfig;
+import com.example.personColorAPI.model.ColorMappingUpdate;
+import com.example.personColorAPI.repository.PersonRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Service class for replacing the color mapping at runtime.
+ * The new mapping is swapped into the {@link ColorConfig} as an immutable snapshot, and persons that are
+ * already stored are recolored with one set-based update per new color instead of a full reimport.
+ * The swap and the recoloring run while no import batch is written, and import batches take the colors of their
+ * persons from the active mapping right before they are written, so no imported person keeps an outdated color.
+ */
+@Service
+@Slf4j
+public class ColorMappingService {
+
+    private final ColorConfig colorConfig;
+    private final PersonRepository personRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ImportGovernor importGovernor;
+
+    /**
+     * Constructor for the ColorMappingService that injects the required configuration and components.
+     *
+     * @param colorConfig         Configuration holding the active color mapping
+     * @param personRepository    Repository for Person entities
+     * @param transactionTemplate Template for running the recoloring in one transaction
+     * @param eventPublisher      Publisher for the event that updates caches after a change
+     * @param importGovernor      The governor of the import batches, which are paused while persons are recolored
+     */
+    public ColorMappingService(ColorConfig colorConfig, PersonRepository personRepository,
+                               TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher,
+                               ImportGovernor importGovernor) {
+        this.colorConfig = colorConfig;
+        this.personRepository = personRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.importGovernor = importGovernor;
+    }
+
+    /**
+     * Returns the active color mapping.
+     *
+     * @return An immutable map of person IDs to their associated colors
+     */
+    public Map<Integer, String> getColors() {
+        Map<Integer, String> colors = colorConfig.getColors();
+        return colors == null ? Map.of() : colors;
+    }
+
+    /**
+     * Replaces the color mapping and recolors the stored persons whose color has changed.
+     * Running import batches are finished first, and further batches wait until the recoloring has committed.
+     * If the recoloring fails, the previous mapping is restored.
+     *
+     * @param newColors The new map of person IDs to their associated colors
+     * @return The active mapping, the changed personIds and the number of recolored persons
+     * @throws IllegalArgumentException If the mapping contains a null person ID or color
+     */
+    public synchronized ColorMappingUpdate updateColors(Map<Integer, String> newColors) {
+        if (newColors == null || newColors.containsKey(null) || newColors.containsValue(null)) {
+            throw new IllegalArgumentException("The color mapping must not contain empty person IDs or colors.");
+        }
+        return importGovernor.runExclusively(() -> replaceColors(newColors));
+    }
+
+    private ColorMappingUpdate replaceColors(Map<Integer, String> newColors) {
+        Map<Integer, String> previousColors = getColors();
+        Map<String, List<Integer>> changedIdsByColor = findChanges(previousColors, newColors);
+        Set<Integer> changedPersonIds = new TreeSet<>();
+        changedIdsByColor.values().forEach(changedPersonIds::addAll);
+
+        colorConfig.setColors(newColors);
+        if (changedPersonIds.isEmpty()) {
+            log.info("The color mapping was reloaded without changes.");
+            return new ColorMappingUpdate(getColors(), changedPersonIds, 0);
+        }
+
+        int updatedPersons;
+        try {
+            updatedPersons = Objects.requireNonNull(transactionTemplate.execute(status -> recolor(changedIdsByColor)));
+        } catch (RuntimeException e) {
+            colorConfig.setColors(previousColors);
+            log.error("Error recoloring persons, the previous color mapping was restored: {}", e.getMessage(), e);
+            throw e;
+        }
+
+        log.info("The color mapping was reloaded, {} personIds changed and {} persons were recolored.",
+                changedPersonIds.size(), updatedPersons);
+        eventPublisher.publishEvent(new ColorMappingChangedEvent(changedPersonIds, getColors()));
+        return new ColorMappingUpdate(getColors(), changedPersonIds, updatedPersons);
+    }
+
+    /**
+     * Groups the personIds whose color differs between the two mappings by their new color.
+     * PersonIds that are no longer mapped get the unknown color.
+     */
+    private static Map<String, List<Integer>> findChanges(Map<Integer, String> previousColors, Map<Integer, String> newColors) {
+        Set<Integer> personIds = new HashSet<>(previousColors.keySet());
+        personIds.addAll(newColors.keySet());
+
+        Map<String, List<Integer>> changedIdsByColor = new TreeMap<>();
+        for (Integer personId : personIds) {
+            String previousColor = previousColors.getOrDefault(personId, ColorConfig.UNKNOWN_COLOR);
+            String newColor = newColors.getOrDefault(personId, ColorConfig.UNKNOWN_COLOR);
+            if (!previousColor.equals(newColor)) {
+                changedIdsByColor.computeIfAbsent(newColor, color -> new ArrayList<>()).add(personId);
+            }
+        }
+        return changedIdsByColor;
+    }
+
+    private int recolor(Map<String, List<Integer>> changedIdsByColor) {
+        int updatedPersons = 0;
+        for (Map.Entry<String, List<Integer>> entry : changedIdsByColor.entrySet()) {
+            updatedPersons += personRepository.updateColorByPersonIdIn(entry.getKey(), entry.getValue());
+        }
+        return updatedPersons;
+    }
+}
@@ -3,23 +3,47 @@ package com.example.personColorAPI.service;
 import com.example.personColorAPI.config.ColorConfig;
 import com.example.personColorAPI.config.FileConfig;
 import com.example.personColorAPI.model.Person;
+import com.example.personColorAPI.model.PersonKey;
+import com.example.personColorAPI.monitoring.ParseChunkEvent;
+import com.github.luben.zstd.ZstdInputStream;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
-import java.io.FileReader;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Service class for reading CSV files and converting the data into Person objects.
  * This service is responsible for reading the file, processing the rows, and creating Person instances.
+ * Every {@value #PARSE_CHUNK_ROWS} rows a {@link ParseChunkEvent} is emitted to Java Flight Recorder once the last
+ * row of the chunk has been parsed.
  */
 @Service
 @Slf4j
 public class CsvFileReaderService {
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+    static final int PARSE_CHUNK_ROWS = 10_000;
+    private static final byte[] GZIP_MAGIC = {(byte) 0x1f, (byte) 0x8b};
+    private static final byte[] ZSTD_MAGIC = {(byte) 0x28, (byte) 0xb5, (byte) 0x2f, (byte) 0xfd};
+    private static final Pattern ZIP_AND_CITY_INVALID_CHARACTERS = Pattern.compile("[^a-zA-Z0-9\\säöüßÄÖÜ ]");
+    static final long INVALID_PERSON_ID = Long.MIN_VALUE;
+
     private final FileConfig fileConfig;
     private final ColorConfig colorConfig;
 
@@ -35,28 +59,66 @@ public class CsvFileReaderService {
     }
 
     /**
-     * Reads the CSV file, processes each row, and converts it into a list of Person objects.
+     * Reads the CSV file configured in the FileConfig and converts it into a list of Person objects.
      *
      * @return A list of Person objects populated from the CSV file
      * @throws IOException If an error occurs while reading the file
      */
     public List<Person> readCsvFile() throws IOException {
+        return readCsvFile(Path.of(fileConfig.getFilePath()));
+    }
+
+    /**
+     * Reads the given CSV file, processes each row, and converts it into a list of Person objects.
+     * Rows that repeat the natural key (name, lastname, zipcode and personId) of an earlier row
+     * are skipped, and repeated zipcodes, cities and colors share a single String instance.
+     * Gzip and zstd compressed files are detected by their magic bytes and decoded while reading.
+     *
+     * @param path The path of the CSV file to read
+     * @return A list of Person objects populated from the CSV file
+     * @throws IOException If an error occurs while reading the file
+     */
+    public List<Person> readCsvFile(Path path) throws IOException {
         List<Person> persons = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(fileConfig.getFilePath()))) {
+        Set<PersonKey> seenKeys = new HashSet<>();
+        BoundedStringInterner interner = new BoundedStringInterner(fileConfig.getInternCapacity());
+        int duplicateRows = 0;
+        try (RejectWriter rejects = RejectWriter.open(fileConfig.getRejectsDirectory(), path);
+             CountingInputStream input = new CountingInputStream(Files.newInputStream(path));
+             BufferedReader br = new BufferedReader(openReader(input, path))) {
             String csvRow;
+            long lineNumber = 0;
+            ParseChunkEvent chunk = startChunk();
+            long chunkStartBytes = 0;
 
             while ((csvRow = br.readLine()) != null) {
-                if (!csvRow.trim().isEmpty()) {
-                    String[] fields = csvRow.split(",");
-                    if (fields.length == 4) {
-                        createPersonFromCsvFields(fields, persons);
+                lineNumber++;
+                Person person = parseRow(csvRow, lineNumber, interner, rejects);
+                if (person != null) {
+                    if (seenKeys.add(PersonKey.of(person))) {
+                        persons.add(person);
                     } else {
-                        log.warn("The row does not have the expected length: {}", csvRow);
+                        duplicateRows++;
                     }
                 }
+                if (lineNumber % PARSE_CHUNK_ROWS == 0) {
+                    commitChunk(chunk, path, PARSE_CHUNK_ROWS, input.getCount() - chunkStartBytes);
+                    chunk = startChunk();
+                    chunkStartBytes = input.getCount();
+                }
+            }
+            if (lineNumber % PARSE_CHUNK_ROWS != 0) {
+                commitChunk(chunk, path, (int) (lineNumber % PARSE_CHUNK_ROWS), input.getCount() - chunkStartBytes);
+            }
+            if (duplicateRows > 0) {
+                log.info("{} duplicate rows within the CSV file were skipped.", duplicateRows);
+            }
+            if (rejects.getRejectedRows() > 0) {
+                log.warn("{} rows of the CSV file {} were rejected. Rejects file: {}", rejects.getRejectedRows(), path,
+                        rejects.getFile() != null ? rejects.getFile() : "not configured");
             }
         } catch (IOException e) {
-            log.error("Error occurred while reading the CSV file at path: {}. Exception: {}", fileConfig.getFilePath(), e.getMessage(), e);
+            log.error("Error occurred while reading the CSV file at path: {}. Exception: {}", path, e.getMessage(), e);
             throw e;
         } catch (Exception e) {
             log.error("An unexpected error occurred while processing the CSV file: {}", e.getMessage(), e);
@@ -66,24 +128,153 @@ public class CsvFileReaderService {
     }
 
     /**
-     * Creates a Person object from the CSV row fields and adds it to the list of persons.
+     * Validates a single CSV row and converts it into a Person object.
+     * Invalid rows are passed to the reject writer with their line number and reason instead of
+     * raising an exception, so a file with many broken rows costs about as much as a clean one.
+     *
+     * @param csvRow     The raw content of the row
+     * @param lineNumber The line number of the row within the file, starting at 1
+     * @param interner   The interner used to share repeated zipcodes, cities and colors
+     * @param rejects    The reject writer receiving invalid rows
+     * @return The created Person, or null if the row is blank or was rejected
+     */
+    Person parseRow(String csvRow, long lineNumber, BoundedStringInterner interner, RejectWriter rejects) {
+        if (csvRow.isBlank()) {
+            return null;
+        }
+        String[] fields = csvRow.split(",");
+        if (fields.length != 4) {
+            rejects.reject(lineNumber, RejectReason.WRONG_FIELD_COUNT, csvRow);
+            return null;
+        }
+        long personId = parsePersonId(fields[3]);
+        if (personId == INVALID_PERSON_ID) {
+            rejects.reject(lineNumber, RejectReason.INVALID_PERSON_ID, csvRow);
+            return null;
+        }
+        return createPersonFromCsvFields(fields, (int) personId, interner);
+    }
+
+    /**
+     * Parses the personId field without throwing an exception for invalid input.
+     *
+     * @param field The raw personId field, possibly surrounded by whitespace
+     * @return The parsed personId, or {@link #INVALID_PERSON_ID} if the field is not a valid integer
+     */
+    static long parsePersonId(String field) {
+        String value = field.trim();
+        int length = value.length();
+        if (length == 0) {
+            return INVALID_PERSON_ID;
+        }
+        boolean negative = value.charAt(0) == '-';
+        int start = negative || value.charAt(0) == '+' ? 1 : 0;
+        if (start == length || length - start > 10) {
+            return INVALID_PERSON_ID;
+        }
+        long result = 0;
+        for (int i = start; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return INVALID_PERSON_ID;
+            }
+            result = result * 10 + (c - '0');
+        }
+        result = negative ? -result : result;
+        if (result < Integer.MIN_VALUE || result > Integer.MAX_VALUE) {
+            return INVALID_PERSON_ID;
+        }
+        return result;
+    }
+
+    /**
+     * Opens a reader for the given file. Gzip and zstd compressed content is recognized by its
+     * magic bytes and decompressed as a stream, so compressed files never have to be extracted to disk.
      *
-     * @param fields  The array of CSV fields for a single row
-     * @param persons The list to which the created Person will be added
+     * @param raw  The stream of the file content
+     * @param path The path of the file to open
+     * @return A reader returning the decompressed content of the file
+     * @throws IOException If the file cannot be opened
      */
-    private void createPersonFromCsvFields(String[] fields, List<Person> persons) {
+    private Reader openReader(InputStream raw, Path path) throws IOException {
+        InputStream in = new BufferedInputStream(raw, BUFFER_SIZE);
         try {
-            String personIdString = fields[3].trim();
-            int personId = Integer.parseInt(personIdString);
-            String color = getColorForPerson(personId);
-            String[] plzAndCity = extractZipAndCity(fields[2]);
-            Person person = createPerson(fields, plzAndCity, color, personId);
-            persons.add(person);
-        } catch (NumberFormatException e) {
-            log.error("Error processing the ID: {} - {}", fields[3], e.getMessage());
-        } catch (Exception e) {
-            log.error("Unexpected error while mapping person: {}. Error: {}", String.join(",", fields), e.getMessage(), e);
+            in.mark(ZSTD_MAGIC.length);
+            byte[] header = in.readNBytes(ZSTD_MAGIC.length);
+            in.reset();
+
+            InputStream decoded = in;
+            if (startsWith(header, GZIP_MAGIC)) {
+                log.debug("Reading gzip compressed CSV file {}.", path);
+                decoded = new GZIPInputStream(in, BUFFER_SIZE);
+            } else if (startsWith(header, ZSTD_MAGIC)) {
+                log.debug("Reading zstd compressed CSV file {}.", path);
+                decoded = new BufferedInputStream(new ZstdInputStream(in), BUFFER_SIZE);
+            }
+            return new InputStreamReader(decoded, StandardCharsets.UTF_8);
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    private static ParseChunkEvent startChunk() {
+        ParseChunkEvent chunk = new ParseChunkEvent();
+        chunk.begin();
+        return chunk;
+    }
+
+    private static void commitChunk(ParseChunkEvent chunk, Path path, int rows, long bytes) {
+        chunk.end();
+        if (chunk.shouldCommit()) {
+            chunk.file = path.toString();
+            chunk.rows = rows;
+            chunk.bytes = bytes;
+            chunk.commit();
+        }
+    }
+
+    /**
+     * Returns whether the given file is gzip or zstd compressed.
+     *
+     * @param path The path of the file
+     * @return true if the file starts with the magic bytes of gzip or zstd; false otherwise
+     * @throws IOException If the file cannot be read
+     */
+    static boolean isCompressed(Path path) throws IOException {
+        byte[] header;
+        try (InputStream in = Files.newInputStream(path)) {
+            header = in.readNBytes(ZSTD_MAGIC.length);
         }
+        return startsWith(header, GZIP_MAGIC) || startsWith(header, ZSTD_MAGIC);
+    }
+
+    private static boolean startsWith(byte[] header, byte[] magic) {
+        if (header.length < magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if (header[i] != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates a Person object from the validated CSV row fields.
+     *
+     * @param fields   The array of CSV fields for a single row
+     * @param personId The parsed person ID
+     * @param interner The interner used to share repeated zipcodes, cities and colors
+     * @return The created Person
+     */
+    private Person createPersonFromCsvFields(String[] fields, int personId, BoundedStringInterner interner) {
+        String color = interner.intern(getColorForPerson(personId));
+        String[] plzAndCity = extractZipAndCity(fields[2]);
+        plzAndCity[0] = interner.intern(plzAndCity[0]);
+        plzAndCity[1] = interner.intern(plzAndCity[1]);
+        return createPerson(fields, plzAndCity, color, personId);
     }
 
     /**
@@ -93,11 +284,12 @@ public class CsvFileReaderService {
      * @return The color associated with the person, or "UNKNOWN" if no color is found
      */
     private String getColorForPerson(int personId) {
-        if (colorConfig == null || colorConfig.getColors() == null) {
+        Map<Integer, String> colors = colorConfig == null ? null : colorConfig.getColors();
+        if (colors == null) {
             log.error("ColorConfig or Colors map is null, returning default color 'UNKNOWN'.");
-            return "UNKNOWN";
+            return ColorConfig.UNKNOWN_COLOR;
         }
-        return colorConfig.getColors().getOrDefault(personId, "UNKNOWN");
+        return colors.getOrDefault(personId, ColorConfig.UNKNOWN_COLOR);
     }
 
     /**
@@ -128,7 +320,7 @@ public class CsvFileReaderService {
      * @return An array containing the zipcode at index 0 and the city at index 1
      */
     private String[] extractZipAndCity(String zipAndCity) {
-        String cleanedZipAndCity = zipAndCity.replaceAll("[^a-zA-Z0-9\\säöüßÄÖÜ ]", "").trim();
+        String cleanedZipAndCity = ZIP_AND_CITY_INVALID_CHARACTERS.matcher(zipAndCity).replaceAll("").trim();
         String[] zipAndCityParts = cleanedZipAndCity.split(" ", 2);
 
         if (cleanedZipAndCity.isEmpty()) {
@@ -142,4 +334,45 @@ public class CsvFileReaderService {
 
         return zipAndCityParts;
     }
-}
\ No newline at end of file
+
+    /**
+     * Counts the bytes read from the underlying stream, so parse chunks can report the bytes read from the file.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        private long getCount() {
+            return count;
+        }
+    }
+}
@@ -1,58 +1,278 @@
 package com.example.personColorAPI.service;
 
+import com.example.personColorAPI.config.ColorConfig;
+import com.example.personColorAPI.config.DataSourceRoutingContext;
+import com.example.personColorAPI.config.ImportConfig;
 import com.example.personColorAPI.model.Person;
+import com.example.personColorAPI.model.PersonKey;
+import com.example.personColorAPI.monitoring.ImportBatchEvent;
+import com.example.personColorAPI.monitoring.SqlStatementCounter;
 import com.example.personColorAPI.repository.PersonRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @Slf4j
 public class CsvImporterService {
 
+    private static final String EVENT_SOURCE = "csv";
+
     private final PersonRepository personRepository;
+    private final int batchSize;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ImportGovernor importGovernor;
+    private final ColorConfig colorConfig;
 
-    public CsvImporterService(PersonRepository personRepository) {
+    public CsvImporterService(PersonRepository personRepository, ImportConfig importConfig,
+                              ApplicationEventPublisher eventPublisher, ImportGovernor importGovernor,
+                              ColorConfig colorConfig) {
         this.personRepository = personRepository;
+        this.eventPublisher = eventPublisher;
+        this.importGovernor = importGovernor;
+        this.colorConfig = colorConfig;
+        this.batchSize = Math.max(importConfig.getBatchSize(), 1);
+    }
+
+    public ImportResult importPersons(List<Person> persons) {
+        return importPersons(persons, new PersonKeyClaims());
     }
 
-    public void importPersons(List<Person> persons) {
+    /**
+     * Imports the given persons, skipping persons that already exist in the database or occur more than once.
+     * The natural key of every person to save is claimed in the given claims, so imports running in parallel
+     * can share one instance to avoid inserting the same person twice. The claims are committed with their batch.
+     * A person whose key is claimed by a parallel import is only counted as a duplicate once that claim is
+     * committed; if the claiming batch fails, the person is imported by this import instead. If a batch of this
+     * import fails, the claims of the batches not committed are released and an {@link ImportFailedException}
+     * reports the committed batches.
+     * All database access of an import goes to the primary, so the duplicate checks never read from a
+     * lagging replica.
+     *
+     * @param persons The persons to import
+     * @param claims  The natural keys claimed by this and parallel imports
+     * @return The number of imported and skipped persons
+     * @throws ImportFailedException If a batch cannot be saved
+     */
+    public ImportResult importPersons(List<Person> persons, PersonKeyClaims claims) {
+        long start = System.nanoTime();
+        long statementsBefore = SqlStatementCounter.currentCount();
+        ImportResult result = DataSourceRoutingContext.onPrimary(() -> importPersonsOnPrimary(persons, claims));
+        log.info("Import of {} persons executed {} SQL statements in {} ms.", persons == null ? 0 : persons.size(),
+                SqlStatementCounter.currentCount() - statementsBefore, (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    private ImportResult importPersonsOnPrimary(List<Person> persons, PersonKeyClaims claims) {
         if (persons == null || persons.isEmpty()) {
             log.warn("No people to import.");
-            return;
+            return ImportResult.EMPTY;
         }
 
         List<Person> peopleToSave = new ArrayList<>();
         List<Person> duplicatePeople = new ArrayList<>();
+        List<Person> deferredPeople = new ArrayList<>();
+        Set<PersonKey> ownKeys = new HashSet<>();
 
-        for (Person person : persons) {
-            if (personRepository.existsByNameAndLastnameAndZipcodeAndPersonId(
-                    person.getName(), person.getLastname(), person.getZipcode(), person.getPersonId())) {
-                duplicatePeople.add(person);
-                log.info("The person with the information {} is duplicated and will not be imported.", person);
-            } else {
-                peopleToSave.add(person);
+        try {
+            for (int from = 0; from < persons.size(); from += batchSize) {
+                List<Person> chunk = persons.subList(from, Math.min(from + batchSize, persons.size()));
+                int duplicatesBefore = duplicatePeople.size();
+                ImportBatchEvent dedupeEvent = ImportBatchEvent.start(EVENT_SOURCE, ImportBatchEvent.DEDUPE);
+                long governorWaitNanos = findDuplicates(chunk, claims, ownKeys, peopleToSave, duplicatePeople, deferredPeople);
+                dedupeEvent.complete(chunk.size(), duplicatePeople.size() - duplicatesBefore, governorWaitNanos);
             }
+        } catch (RuntimeException e) {
+            claims.release(ownKeys);
+            throw e;
         }
 
-        if (peopleToSave.isEmpty()) {
+        if (peopleToSave.isEmpty() && deferredPeople.isEmpty()) {
             log.info("No new people to import.");
-            return;
+            return new ImportResult(0, duplicatePeople.size());
         }
 
+        int imported = 0;
+        int totalBatches = batchCount(peopleToSave);
+        int committedBatches = 0;
+        while (true) {
+            int saved = 0;
+            try {
+                while (saved < peopleToSave.size()) {
+                    int end = Math.min(saved + batchSize, peopleToSave.size());
+                    List<Person> batch = peopleToSave.subList(saved, end);
+                    saveBatch(batch);
+                    claims.commit(keysOf(batch));
+                    saved = end;
+                    committedBatches++;
+                }
+            } catch (Exception e) {
+                // The keys of the failed and the remaining batches were claimed but never committed, so they are
+                // released for the parallel imports, which then import these persons themselves.
+                claims.release(keysOf(peopleToSave.subList(saved, peopleToSave.size())));
+                log.error("Error importing people into the database after {} of {} batches were committed: {}",
+                        committedBatches, totalBatches, e.getMessage(), e);
+                throw new ImportFailedException(committedBatches, totalBatches,
+                        new ImportResult(imported + saved, duplicatePeople.size()), e);
+            }
+            imported += saved;
+            if (deferredPeople.isEmpty()) {
+                break;
+            }
+            peopleToSave = claimReleased(deferredPeople, claims, ownKeys, duplicatePeople);
+            totalBatches += batchCount(peopleToSave);
+        }
+        log.info("{} People imported successfully.", imported);
+        if (!duplicatePeople.isEmpty()) {
+            log.info("{} duplicate people were skipped.", duplicatePeople.size());
+        }
+        return new ImportResult(imported, duplicatePeople.size());
+    }
+
+    /**
+     * Looks up which persons of one chunk are already stored with a single query while holding a permit of the
+     * {@link ImportGovernor}, so the duplicate checks are limited like the writes without counting towards the
+     * row rate. Persons that are stored or occur earlier in this import are added to the duplicates. The others
+     * are claimed and added to the persons to save, unless a parallel import has claimed them first, in which
+     * case they are deferred until the outcome of that claim is known.
+     *
+     * @return The time in nanoseconds spent waiting for the permit
+     */
+    private long findDuplicates(List<Person> chunk, PersonKeyClaims claims, Set<PersonKey> ownKeys,
+                                List<Person> peopleToSave, List<Person> duplicatePeople, List<Person> deferredPeople) {
+        List<PersonKey> keys = keysOf(chunk);
+        Set<PersonKey> existingKeys;
+        long waitStart = System.nanoTime();
+        importGovernor.acquire(0);
+        long governorWaitNanos = System.nanoTime() - waitStart;
         try {
-            personRepository.saveAll(peopleToSave);
-            log.info("{} People imported successfully.", peopleToSave.size());
+            existingKeys = personRepository.findExistingKeys(keys);
+        } finally {
+            importGovernor.release();
+        }
+        for (int i = 0; i < chunk.size(); i++) {
+            Person person = chunk.get(i);
+            PersonKey key = keys.get(i);
+            if (existingKeys.contains(key)) {
+                duplicatePeople.add(person);
+                log.info("The person with the information {} is duplicated and will not be imported.", person);
+            } else if (ownKeys.contains(key)) {
+                duplicatePeople.add(person);
+                log.info("The person with the information {} occurs more than once in the import and is imported only once.", person);
+            } else if (claims.tryClaim(key)) {
+                ownKeys.add(key);
+                peopleToSave.add(person);
+            } else {
+                deferredPeople.add(person);
+                log.debug("The person with the information {} is being imported by a parallel import.", person);
+            }
+        }
+        return governorWaitNanos;
+    }
 
-            if (!duplicatePeople.isEmpty()) {
-                log.info("{} duplicate people were skipped.", duplicatePeople.size());
+    /**
+     * Waits for the outcome of the claims of the deferred persons, which parallel imports resolve when their
+     * batches are committed or fail. Persons whose claim was committed are added to the duplicates. Persons whose
+     * claim was released are claimed again and returned to be saved by this import. Persons claimed again by
+     * another import in the meantime stay deferred. Since this import has resolved all its own claims before,
+     * two imports never wait for each other.
+     *
+     * @return The persons to save
+     */
+    private List<Person> claimReleased(List<Person> deferredPeople, PersonKeyClaims claims, Set<PersonKey> ownKeys,
+                                       List<Person> duplicatePeople) {
+        List<Person> peopleToSave = new ArrayList<>();
+        List<Person> stillDeferred = new ArrayList<>();
+        for (Person person : deferredPeople) {
+            PersonKey key = PersonKey.of(person);
+            if (ownKeys.contains(key)) {
+                duplicatePeople.add(person);
+                log.info("The person with the information {} occurs more than once in the import and is imported only once.", person);
+            } else if (claims.outcome(key).join()) {
+                duplicatePeople.add(person);
+                log.info("The person with the information {} was imported by a parallel import.", person);
+            } else if (claims.tryClaim(key)) {
+                ownKeys.add(key);
+                peopleToSave.add(person);
+                log.info("The person with the information {} was not committed by a parallel import and is imported again.", person);
+            } else {
+                stillDeferred.add(person);
             }
+        }
+        deferredPeople.clear();
+        deferredPeople.addAll(stillDeferred);
+        return peopleToSave;
+    }
 
-        } catch (Exception e) {
-            log.error("Error importing people into the database: {}", e.getMessage(), e);
-            throw new RuntimeException("Error importing people into the database.", e);
+    private int batchCount(List<Person> people) {
+        return (people.size() + batchSize - 1) / batchSize;
+    }
+
+    private static List<PersonKey> keysOf(List<Person> people) {
+        return people.stream().map(PersonKey::of).toList();
+    }
+
+    /**
+     * Imports the persons restored from a snapshot. If the table is empty, the persons are saved in batches without
+     * duplicate checks, since a snapshot contains each natural key only once. Otherwise the table may already hold
+     * some of them, e.g. after an interrupted restore, so they are imported with the duplicate checks of
+     * {@link #importPersons(List)}.
+     *
+     * @param persons The persons restored from the snapshot
+     * @return The number of imported and skipped persons
+     */
+    public ImportResult importSnapshot(List<Person> persons) {
+        if (persons == null || persons.isEmpty()) {
+            log.warn("The snapshot contains no people to import.");
+            return ImportResult.EMPTY;
+        }
+        long start = System.nanoTime();
+        long statementsBefore = SqlStatementCounter.currentCount();
+        ImportResult result = DataSourceRoutingContext.onPrimary(() -> importSnapshotOnPrimary(persons));
+        log.info("Snapshot import of {} persons executed {} SQL statements in {} ms.", persons.size(),
+                SqlStatementCounter.currentCount() - statementsBefore, (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    private ImportResult importSnapshotOnPrimary(List<Person> persons) {
+        if (personRepository.existsByIdIsNotNull()) {
+            log.info("The database already contains persons, the snapshot is imported with duplicate checks.");
+            return importPersonsOnPrimary(persons, new PersonKeyClaims());
+        }
+        for (int from = 0; from < persons.size(); from += batchSize) {
+            saveBatch(persons.subList(from, Math.min(from + batchSize, persons.size())));
+        }
+        log.info("{} People restored from the snapshot.", persons.size());
+        return new ImportResult(persons.size(), 0);
+    }
+
+    /**
+     * Saves one batch of persons while holding a permit of the {@link ImportGovernor}, so that the write rate
+     * and the number of batches written at the same time are limited across all running imports and
+     * online requests are given priority. The colors are taken from the active mapping while the permit is held,
+     * so a mapping replaced after the persons were read also applies to them. The committed batch is published
+     * as a {@link PersonsCreatedEvent} and recorded as an {@link ImportBatchEvent} in Java Flight Recorder.
+     */
+    private void saveBatch(List<Person> batch) {
+        ImportBatchEvent insertEvent = ImportBatchEvent.start(EVENT_SOURCE, ImportBatchEvent.INSERT);
+        List<Person> saved;
+        long waitStart = System.nanoTime();
+        importGovernor.acquire(batch.size());
+        long governorWaitNanos = System.nanoTime() - waitStart;
+        try {
+            batch.forEach(person -> person.setColor(colorConfig.colorOf(person.getPersonId())));
+            saved = personRepository.saveAll(batch);
+        } finally {
+            importGovernor.release();
+        }
+        insertEvent.complete(batch.size(), 0, governorWaitNanos);
+        if (!saved.isEmpty()) {
+            eventPublisher.publishEvent(new PersonsCreatedEvent(saved));
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,51 @@
+package com.example.personColorAPI.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Identifies the content of an input file by its size, modification time and SHA-256 hash.
+ * Two fingerprints are equal only if the file has not been changed in between.
+ *
+ * @param size               The size of the file in bytes
+ * @param lastModifiedMillis The last modification time of the file in milliseconds since the epoch
+ * @param sha256             The hex encoded SHA-256 hash of the file content
+ */
+public record FileFingerprint(long size, long lastModifiedMillis, String sha256) {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Computes the fingerprint of the given file.
+     *
+     * @param file The file to fingerprint
+     * @return The fingerprint of the file
+     * @throws IOException If the file cannot be read
+     */
+    public static FileFingerprint of(Path file) throws IOException {
+        long size = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        MessageDigest digest = newDigest();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return new FileFingerprint(size, lastModified, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+}
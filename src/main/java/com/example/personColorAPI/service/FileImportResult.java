@@ -0,0 +1,25 @@
+package com.example.personColorAPI.service;
+
+import java.nio.file.Path;
+
+/**
+ * The outcome of importing a single file as part of a directory import.
+ *
+ * @param file           The imported file
+ * @param rowsRead       The number of persons read from the file
+ * @param imported       The number of persons that were saved, for a failed file those of the committed batches
+ * @param duplicates     The number of persons that were skipped as duplicates
+ * @param durationMillis The time spent on reading and importing the file in milliseconds
+ * @param error          The error message if the file could not be imported, or null on success
+ */
+public record FileImportResult(Path file, int rowsRead, int imported, int duplicates, long durationMillis, String error) {
+
+    /**
+     * Returns whether the file was imported without an error.
+     *
+     * @return true if the file was imported; false otherwise
+     */
+    public boolean isSuccessful() {
+        return error == null;
+    }
+}
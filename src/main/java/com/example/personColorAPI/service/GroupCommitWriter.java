@@ -0,0 +1,202 @@
+package com.example.personColorAPI.service;
+
+import com.example.personColorAPI.config.GroupCommitConfig;
+import com.example.personColorAPI.model.Person;
+import com.example.personColorAPI.repository.PersonRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class that collects concurrent creations of single persons and writes them in batches.
+ * A batch is committed as soon as it reaches the maximum batch size or the oldest creation has waited
+ * for the maximum delay. Each caller's future completes only after the transaction of its batch has
+ * committed, so the durability of a single creation is unchanged while the number of commits drops.
+ */
+@Service
+@Slf4j
+public class GroupCommitWriter {
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final PersonRepository personRepository;
+    private final GroupCommitConfig groupCommitConfig;
+    private final BlockingQueue<PendingPerson> queue;
+    private volatile boolean running;
+    private Thread writerThread;
+
+    /**
+     * Constructor for the GroupCommitWriter that injects the PersonRepository and GroupCommitConfig.
+     *
+     * @param personRepository  Repository for Person entities
+     * @param groupCommitConfig Configuration for the batch size and delay of the group commit
+     */
+    public GroupCommitWriter(PersonRepository personRepository, GroupCommitConfig groupCommitConfig) {
+        this.personRepository = personRepository;
+        this.groupCommitConfig = groupCommitConfig;
+        this.queue = new LinkedBlockingQueue<>(Math.max(groupCommitConfig.getQueueCapacity(), 1));
+    }
+
+    /**
+     * Starts the writer thread if the group commit is enabled.
+     */
+    @PostConstruct
+    public void start() {
+        if (!groupCommitConfig.isEnabled()) {
+            return;
+        }
+        running = true;
+        writerThread = Thread.ofPlatform().name("group-commit-writer").daemon(true).start(this::writeBatches);
+        log.info("Group commit enabled with a batch size of {} and a delay of {} ms.",
+                groupCommitConfig.getMaxBatchSize(), groupCommitConfig.getMaxDelayMillis());
+    }
+
+    /**
+     * Stops accepting creations and waits until all queued creations are committed.
+     */
+    @PreDestroy
+    public void stop() {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        failQueued();
+    }
+
+    /**
+     * Returns the maximum time in milliseconds a caller waits for the commit of its batch.
+     *
+     * @return The commit timeout in milliseconds
+     */
+    public long getCommitTimeoutMillis() {
+        return groupCommitConfig.getCommitTimeoutMillis();
+    }
+
+    /**
+     * Returns whether creations are committed in groups.
+     *
+     * @return true if the writer thread is running; false otherwise
+     */
+    public boolean isEnabled() {
+        return running;
+    }
+
+    /**
+     * Queues the person for the next batch.
+     *
+     * @param person The person to create
+     * @return A future that completes with the saved person once its batch has committed, or exceptionally
+     * if the writer is stopped before the person was taken into a batch
+     */
+    public CompletableFuture<Person> submit(Person person) {
+        if (!running) {
+            return CompletableFuture.failedFuture(new IllegalStateException("The group commit writer is not running."));
+        }
+        PendingPerson pending = new PendingPerson(person, new CompletableFuture<>());
+        try {
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        // stop() may have drained the queue between the running check and the put. If the writer has not taken
+        // the person since, nobody else completes its future.
+        if (!running && queue.remove(pending)) {
+            pending.result().completeExceptionally(new IllegalStateException("The group commit writer was stopped."));
+        }
+        return pending.result();
+    }
+
+    /**
+     * Collects creations into batches until the writer is stopped and the queue is empty.
+     * If the thread ends for another reason, the writer stops accepting creations and fails the queued ones,
+     * so no caller waits for a batch that is never written.
+     */
+    private void writeBatches() {
+        try {
+            collectBatches();
+        } finally {
+            running = false;
+            failQueued();
+        }
+    }
+
+    private void collectBatches() {
+        int maxBatchSize = Math.max(groupCommitConfig.getMaxBatchSize(), 1);
+        long maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(groupCommitConfig.getMaxDelayMillis(), 0));
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingPerson first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<PendingPerson> batch = new ArrayList<>(maxBatchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingPerson next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("The group commit writer was interrupted with {} queued persons.", queue.size());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Saves one batch in a single transaction and completes the futures of its callers.
+     * Every failure, including errors, fails the batch but keeps the writer thread alive.
+     */
+    private void commit(List<PendingPerson> batch) {
+        List<Person> persons = new ArrayList<>(batch.size());
+        for (PendingPerson pending : batch) {
+            persons.add(pending.person());
+        }
+        try {
+            List<Person> savedPersons = personRepository.saveAll(persons);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(savedPersons.get(i));
+            }
+            log.debug("Group commit of {} persons.", batch.size());
+        } catch (Throwable e) {
+            log.error("Error committing a group of {} persons: {}", batch.size(), e.getMessage(), e);
+            for (PendingPerson pending : batch) {
+                pending.result().completeExceptionally(e);
+            }
+        }
+    }
+
+    private void failQueued() {
+        PendingPerson pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().completeExceptionally(new IllegalStateException("The group commit writer was stopped."));
+        }
+    }
+
+    /**
+     * A person waiting for its batch together with the future of its caller.
+     */
+    private record PendingPerson(Person person, CompletableFuture<Person> result) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.personColorAPI.service;
+
+/**
+ * Thrown when an Idempotency-Key is reserved by a request on another node that has not completed in time.
+ */
+public class IdempotencyKeyInProgressException extends RuntimeException {
+
+    /**
+     * Creates the exception for the given key.
+     *
+     * @param key The reserved Idempotency-Key
+     */
+    public IdempotencyKeyInProgressException(String key) {
+        super("The creation for the Idempotency-Key " + key + " is still in progress.");
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.personColorAPI.service;
+
+/**
+ * Thrown when an Idempotency-Key is sent again with a different person than in its first request.
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    /**
+     * Creates the exception for the given key.
+     *
+     * @param key The reused Idempotency-Key
+     */
+    public IdempotencyKeyReusedException(String key) {
+        super("The Idempotency-Key " + key + " was already used for a different person.");
+    }
+}
@@ -0,0 +1,314 @@
+package com.example.personColorAPI.service;
+
+import com.example.personColorAPI.config.DataSourceRoutingContext;
+import com.example.personColorAPI.config.IdempotencyConfig;
+import com.example.personColorAPI.model.IdempotencyRecord;
+import com.example.personColorAPI.model.Person;
+import com.example.personColorAPI.model.PersonKey;
+import com.example.personColorAPI.repository.IdempotencyRecordRepository;
+import com.example.personColorAPI.repository.PersonRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.UnaryOperator;
+
+/**
+ * Service class that makes the creation of persons idempotent.
+ * The result of a creation is remembered under the client's Idempotency-Key in a bounded in-memory store
+ * whose entries expire after a configurable time. A retry with the same key returns the original person
+ * without another insert, and a retry arriving while the first request is still running waits for its result.
+ * Optionally the keys are also stored in the database, so retries are recognized after a restart and on other nodes.
+ * A stored key is reserved with an insert before the person is created, so only one node creates the person of a key.
+ * Remembered persons are recolored when the color mapping changes, so a retry never returns an outdated color.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    /**
+     * The maximum length of an Idempotency-Key.
+     */
+    static final int MAX_KEY_LENGTH = 255;
+
+    /**
+     * The interval in milliseconds in which a key reserved by another node is checked for completion.
+     */
+    static final long PENDING_POLL_MILLIS = 50;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final PersonRepository personRepository;
+    private final IdempotencyConfig config;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private long lastDatabaseCleanupMillis;
+
+    /**
+     * Constructor for the IdempotencyService that injects the required repositories and configuration.
+     *
+     * @param idempotencyRecordRepository Repository for the stored idempotency keys
+     * @param personRepository            Repository for Person entities, used to load the original person of a stored key
+     * @param config                      Configuration for the size, expiry and persistence of the keys
+     */
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository, PersonRepository personRepository,
+                              IdempotencyConfig config) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.personRepository = personRepository;
+        this.config = config;
+    }
+
+    /**
+     * Creates the person once per key. A repeated call with the same key returns the person of the first call.
+     *
+     * @param key    The Idempotency-Key sent by the client
+     * @param person The person to create
+     * @param create The creation to run for a new key
+     * @return The created person and whether it was created by an earlier request
+     * @throws IllegalArgumentException          If the key is blank or too long
+     * @throws IdempotencyKeyReusedException     If the key was already used for a different person
+     * @throws IdempotencyKeyInProgressException If the key is reserved by a request on another node that does not complete in time
+     */
+    public IdempotentResult createOnce(String key, Person person, UnaryOperator<Person> create) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("The Idempotency-Key must contain 1 to " + MAX_KEY_LENGTH + " characters.");
+        }
+        PersonKey requestKey = PersonKey.of(person);
+        Entry entry;
+        boolean owner = false;
+        synchronized (entries) {
+            evictExpired();
+            entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry(requestKey, new CompletableFuture<>(), System.currentTimeMillis());
+                entries.put(key, entry);
+                owner = true;
+            }
+        }
+        if (!entry.requestKey().equals(requestKey)) {
+            throw new IdempotencyKeyReusedException(key);
+        }
+        if (!owner) {
+            log.info("Replaying the creation for the Idempotency-Key {}.", key);
+            return new IdempotentResult(await(entry.result()), true);
+        }
+
+        Person created;
+        try {
+            Optional<Person> stored = reserve(key);
+            if (stored.isPresent()) {
+                if (!PersonKey.of(stored.get()).equals(requestKey)) {
+                    throw new IdempotencyKeyReusedException(key);
+                }
+                entry.result().complete(stored.get());
+                log.info("Replaying the stored creation for the Idempotency-Key {}.", key);
+                return new IdempotentResult(stored.get(), true);
+            }
+            created = createReserved(key, person, create);
+        } catch (RuntimeException e) {
+            synchronized (entries) {
+                entries.remove(key, entry);
+            }
+            entry.result().completeExceptionally(e);
+            throw e;
+        }
+        entry.result().complete(created);
+        complete(key, created);
+        return new IdempotentResult(created, false);
+    }
+
+    /**
+     * Replaces the remembered persons whose personId changed its color by copies with the new color.
+     * Persons stored in the database are loaded again on a replay and already carry the new color.
+     *
+     * @param event The event with the changed personIds and the new mapping
+     */
+    @EventListener
+    public void onColorMappingChanged(ColorMappingChangedEvent event) {
+        synchronized (entries) {
+            entries.replaceAll((key, entry) -> {
+                if (!entry.result().isDone() || entry.result().isCompletedExceptionally()) {
+                    return entry;
+                }
+                Person person = entry.result().join();
+                String color = event.colorOf(person.getPersonId());
+                if (!event.changedPersonIds().contains(person.getPersonId()) || Objects.equals(person.getColor(), color)) {
+                    return entry;
+                }
+                return new Entry(entry.requestKey(), CompletableFuture.completedFuture(recolored(person, color)),
+                        entry.createdMillis());
+            });
+        }
+    }
+
+    /**
+     * Removes the expired keys from the head of the store and the oldest keys above the maximum size.
+     * The store keeps the keys in insertion order, so the oldest keys are always at the head.
+     * Keys whose creation is still running are kept, so a concurrent retry waits for it instead of creating again.
+     */
+    private void evictExpired() {
+        long expiredBefore = System.currentTimeMillis() - config.getTtlMillis();
+        int maxEntries = Math.max(config.getMaxEntries(), 1);
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry oldest = iterator.next();
+            if (oldest.createdMillis() >= expiredBefore && entries.size() < maxEntries) {
+                return;
+            }
+            if (oldest.result().isDone()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Reserves the key in the database if persistence is enabled, by inserting a pending record that fails on the
+     * primary key if another node holds the key. If the key is already completed, the person created for it is
+     * returned; if it is still pending on another node, this waits for its completion.
+     *
+     * @return The person created earlier for the key, or empty if the key was reserved for this request
+     * @throws IdempotencyKeyInProgressException If the other node does not complete the key in time
+     */
+    private Optional<Person> reserve(String key) {
+        if (!config.isPersistent()) {
+            return Optional.empty();
+        }
+        long waitUntil = System.currentTimeMillis() + config.getPendingTimeoutMillis();
+        while (true) {
+            Optional<IdempotencyRecord> existing = DataSourceRoutingContext.onPrimary(() -> idempotencyRecordRepository.findById(key));
+            if (existing.isPresent()) {
+                IdempotencyRecord record = existing.get();
+                Optional<Person> stored = isExpired(record) || !record.isCompleted() ? Optional.empty()
+                        : DataSourceRoutingContext.onPrimary(() -> personRepository.findById(record.getPersonEntityId()));
+                if (stored.isPresent()) {
+                    return stored;
+                }
+                if (!isExpired(record) && !record.isCompleted()) {
+                    awaitPending(key, waitUntil);
+                    continue;
+                }
+                idempotencyRecordRepository.deleteRecord(key, record.getCreatedAt());
+            }
+            IdempotencyRecord reservation = new IdempotencyRecord();
+            reservation.setIdempotencyKey(key);
+            reservation.setPersonEntityId(IdempotencyRecord.PENDING);
+            reservation.setCreatedAt(Instant.now());
+            try {
+                idempotencyRecordRepository.saveAndFlush(reservation);
+            } catch (DataIntegrityViolationException e) {
+                log.info("The Idempotency-Key {} was reserved by another node at the same time.", key);
+                continue;
+            }
+            deleteExpiredIfDue();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Runs the creation for a reserved key and releases the reservation if the creation fails,
+     * so a retry can create the person.
+     */
+    private Person createReserved(String key, Person person, UnaryOperator<Person> create) {
+        try {
+            return create.apply(person);
+        } catch (RuntimeException e) {
+            if (config.isPersistent()) {
+                try {
+                    idempotencyRecordRepository.deleteById(key);
+                } catch (RuntimeException deleteFailure) {
+                    log.warn("The reservation of the Idempotency-Key {} could not be released and expires on its own: {}",
+                            key, deleteFailure.getMessage());
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Completes the reserved key with the created person. The person is already committed at this point, so a failure
+     * is only logged: the reservation stays pending and keeps retries on other nodes from creating the person again.
+     */
+    private void complete(String key, Person created) {
+        if (!config.isPersistent()) {
+            return;
+        }
+        try {
+            idempotencyRecordRepository.complete(key, created.getId());
+        } catch (RuntimeException e) {
+            log.warn("The Idempotency-Key {} could not be completed with the person {}: {}", key, created.getId(), e.getMessage());
+        }
+    }
+
+    private boolean isExpired(IdempotencyRecord record) {
+        return record.getCreatedAt().isBefore(Instant.now().minusMillis(config.getTtlMillis()));
+    }
+
+    /**
+     * Waits for a key that is reserved by a request on another node.
+     */
+    private static void awaitPending(String key, long waitUntil) {
+        if (System.currentTimeMillis() >= waitUntil) {
+            throw new IdempotencyKeyInProgressException(key);
+        }
+        try {
+            Thread.sleep(PENDING_POLL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException(key);
+        }
+    }
+
+    /**
+     * Removes expired keys from the database at most once per tenth of the expiry time.
+     */
+    private void deleteExpiredIfDue() {
+        long now = System.currentTimeMillis();
+        boolean cleanupDue;
+        synchronized (entries) {
+            cleanupDue = now - lastDatabaseCleanupMillis >= config.getTtlMillis() / 10;
+            if (cleanupDue) {
+                lastDatabaseCleanupMillis = now;
+            }
+        }
+        if (cleanupDue) {
+            int deleted = idempotencyRecordRepository.deleteByCreatedAtBefore(Instant.ofEpochMilli(now - config.getTtlMillis()));
+            log.debug("{} expired idempotency keys deleted.", deleted);
+        }
+    }
+
+    private static Person recolored(Person person, String color) {
+        Person copy = new Person();
+        copy.setId(person.getId());
+        copy.setPersonId(person.getPersonId());
+        copy.setName(person.getName());
+        copy.setLastname(person.getLastname());
+        copy.setZipcode(person.getZipcode());
+        copy.setCity(person.getCity());
+        copy.setColor(color);
+        return copy;
+    }
+
+    private static Person await(CompletableFuture<Person> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * A remembered key with the natural key of its request and the result of its creation.
+     */
+    private record Entry(PersonKey requestKey, CompletableFuture<Person> result, long createdMillis) {
+    }
+}
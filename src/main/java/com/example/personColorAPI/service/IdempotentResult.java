@@ -0,0 +1,12 @@
+package com.example.personColorAPI.service;
+
+import com.example.personColorAPI.model.Person;
+
+/**
+ * The result of an idempotent creation.
+ *
+ * @param person   The created person
+ * @param replayed Whether the person was created by an earlier request with the same key
+ */
+public record IdempotentResult(Person person, boolean replayed) {
+}
@@ -0,0 +1,229 @@
+package com.example.personColorAPI.service;
+
+import com.example.personColorAPI.config.DataSourceRoutingContext;
+import com.example.personColorAPI.config.ImportCoordinationConfig;
+import com.example.personColorAPI.model.ImportLease;
+import com.example.personColorAPI.model.ImportedFile;
+import com.example.personColorAPI.repository.ImportLeaseRepository;
+import com.example.personColorAPI.repository.ImportedFileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class that coordinates the startup import between several nodes sharing one database.
+ * The import runs only on the node that holds the import lease, and the lease is renewed by a heartbeat
+ * while the import is running. The other nodes wait until the lease is released or expires, so an import
+ * interrupted by a dying node is completed by another one.
+ * Files are recorded by their content hash after a successful import, so they are never imported twice.
+ * All database access goes to the primary, so a lagging replica can never hide a lease or an imported file.
+ */
+@Service
+@Slf4j
+public class ImportCoordinator {
+
+    static final String STARTUP_IMPORT_LEASE = "startup-import";
+
+    private final ImportLeaseRepository importLeaseRepository;
+    private final ImportedFileRepository importedFileRepository;
+    private final ImportCoordinationConfig config;
+    private final String nodeId;
+
+    /**
+     * A unit of import work that runs while the lease is held.
+     */
+    @FunctionalInterface
+    public interface ImportTask {
+        /**
+         * Runs the import.
+         *
+         * @throws IOException If an input file cannot be read
+         */
+        void run() throws IOException;
+    }
+
+    /**
+     * Constructor for the ImportCoordinator that injects the required repositories and configuration.
+     *
+     * @param importLeaseRepository  Repository for the import lease
+     * @param importedFileRepository Repository for the records of imported files
+     * @param config                 Configuration for the lease and the node id
+     */
+    public ImportCoordinator(ImportLeaseRepository importLeaseRepository, ImportedFileRepository importedFileRepository,
+                             ImportCoordinationConfig config) {
+        this.importLeaseRepository = importLeaseRepository;
+        this.importedFileRepository = importedFileRepository;
+        this.config = config;
+        this.nodeId = config.getNodeId() == null || config.getNodeId().isBlank()
+                ? ManagementFactory.getRuntimeMXBean().getName()
+                : config.getNodeId();
+    }
+
+    /**
+     * Returns whether the import is coordinated between nodes.
+     *
+     * @return true if the lease and the records of imported files are used; false otherwise
+     */
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Runs the given import once this node holds the import lease. While another node holds the lease,
+     * this node tries to take it again every heartbeat interval, until the other node has released it
+     * or the lease has expired because the other node died. The task is expected to skip the files that have
+     * been marked as imported in the meantime. Without coordination the import always runs.
+     *
+     * @param task The import to run
+     * @return true if the import ran on this node; false if the thread was interrupted while waiting for the lease
+     * @throws IOException If the import fails to read an input file
+     */
+    public boolean runExclusively(ImportTask task) throws IOException {
+        if (!isEnabled()) {
+            task.run();
+            return true;
+        }
+        if (!awaitLease()) {
+            log.info("{} stopped waiting for the import lease and skips the startup import.", nodeId);
+            return false;
+        }
+
+        log.info("{} holds the import lease.", nodeId);
+        ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(
+                runnable -> Thread.ofPlatform().name("import-lease-heartbeat").daemon(true).unstarted(runnable));
+        long interval = Math.max(config.getHeartbeatIntervalMillis(), 1);
+        heartbeat.scheduleWithFixedDelay(this::renewLease, interval, interval, TimeUnit.MILLISECONDS);
+        try {
+            task.run();
+            return true;
+        } finally {
+            heartbeat.shutdownNow();
+            releaseLease();
+        }
+    }
+
+    /**
+     * Returns whether a file with the given fingerprint has already been imported by any node.
+     * Without coordination no file is considered imported.
+     *
+     * @param fingerprint The fingerprint of the file
+     * @return true if a file with the same content has been imported; false otherwise
+     */
+    public boolean isImported(FileFingerprint fingerprint) {
+        if (!isEnabled()) {
+            return false;
+        }
+        return DataSourceRoutingContext.onPrimary(() -> importedFileRepository.existsById(fingerprint.sha256()));
+    }
+
+    /**
+     * Returns the most recent record of a file imported under the name of the given file.
+     * The record describes the content at the time of the import, which the file may have grown beyond since.
+     * Without coordination no file is recorded.
+     *
+     * @param file The file to look up
+     * @return The latest record of a file with the same name, if any
+     */
+    public Optional<ImportedFile> findImported(Path file) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        String fileName = String.valueOf(file.getFileName());
+        return DataSourceRoutingContext.onPrimary(() -> importedFileRepository.findFirstByFileNameOrderByImportedAtDesc(fileName));
+    }
+
+    /**
+     * Records that the given file has been imported completely. Without coordination nothing is recorded.
+     *
+     * @param file        The imported file
+     * @param fingerprint The fingerprint of the file
+     * @param rowCount    The number of persons read from the file
+     */
+    public void markImported(Path file, FileFingerprint fingerprint, int rowCount) {
+        if (!isEnabled()) {
+            return;
+        }
+        ImportedFile importedFile = new ImportedFile();
+        importedFile.setSha256(fingerprint.sha256());
+        importedFile.setFileName(String.valueOf(file.getFileName()));
+        importedFile.setSize(fingerprint.size());
+        importedFile.setRowCount(rowCount);
+        importedFile.setImportedBy(nodeId);
+        importedFile.setImportedAt(Instant.now());
+        importedFileRepository.save(importedFile);
+    }
+
+    /**
+     * Tries to take the lease every heartbeat interval until it is free or expired.
+     *
+     * @return true once the lease is held; false if the thread was interrupted while waiting
+     */
+    private boolean awaitLease() {
+        if (tryAcquireLease()) {
+            return true;
+        }
+        log.info("The import lease is held by another node, {} waits until it is released or expires.", nodeId);
+        long interval = Math.max(config.getHeartbeatIntervalMillis(), 1);
+        do {
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        } while (!tryAcquireLease());
+        return true;
+    }
+
+    /**
+     * Takes the lease if it is free, expired or already held by this node. The lease row is created
+     * by the first node; if two nodes create it at the same time, the database lets only one insert succeed.
+     */
+    boolean tryAcquireLease() {
+        return DataSourceRoutingContext.onPrimary(() -> {
+            Instant now = Instant.now();
+            Instant expiresAt = now.plusMillis(config.getLeaseTtlMillis());
+            if (importLeaseRepository.claim(STARTUP_IMPORT_LEASE, nodeId, now, expiresAt) == 1) {
+                return true;
+            }
+            if (importLeaseRepository.existsById(STARTUP_IMPORT_LEASE)) {
+                return false;
+            }
+            try {
+                importLeaseRepository.saveAndFlush(new ImportLease(STARTUP_IMPORT_LEASE, nodeId, expiresAt));
+                return true;
+            } catch (DataIntegrityViolationException e) {
+                return false;
+            }
+        });
+    }
+
+    private void renewLease() {
+        try {
+            Instant expiresAt = Instant.now().plusMillis(config.getLeaseTtlMillis());
+            if (importLeaseRepository.extend(STARTUP_IMPORT_LEASE, nodeId, expiresAt) == 0) {
+                log.error("{} lost the import lease, another node may import at the same time.", nodeId);
+            }
+        } catch (RuntimeException e) {
+            log.warn("The import lease could not be renewed: {}", e.getMessage());
+        }
+    }
+
+    private void releaseLease() {
+        try {
+            importLeaseRepository.extend(STARTUP_IMPORT_LEASE, nodeId, Instant.now());
+            log.info("{} released the import lease.", nodeId);
+        } catch (RuntimeException e) {
+            log.warn("The import lease could not be released and expires on its own: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.personColorAPI.service;
+
+/**
+ * Thrown when a batch of an import cannot be saved. The batches saved before the failure stay committed,
+ * so the exception carries the number of committed batches and persons.
+ */
+public class ImportFailedException extends RuntimeException {
+
+    private final int committedBatches;
+    private final int totalBatches;
+    private final ImportResult committed;
+
+    /**
+     * Creates the exception for an import that failed after the given batches were committed.
+     *
+     * @param committedBatches The number of batches committed before the failure
+     * @param totalBatches     The number of batches of the import
+     * @param committed        The persons saved and skipped by the committed part of the import
+     * @param cause            The failure of the batch
+     */
+    public ImportFailedException(int committedBatches, int totalBatches, ImportResult committed, Throwable cause) {
+        super("Error importing people into the database.", cause);
+        this.committedBatches = committedBatches;
+        this.totalBatches = totalBatches;
+        this.committed = committed;
+    }
+
+    /**
+     * Returns the number of batches committed before the failure.
+     *
+     * @return The number of committed batches
+     */
+    public int getCommittedBatches() {
+        return committedBatches;
+    }
+
+    /**
+     * Returns the number of batches of the import.
+     *
+     * @return The number of batches
+     */
+    public int getTotalBatches() {
+        return totalBatches;
+    }
+
+    /**
+     * Returns the persons saved by the committed batches and the duplicates skipped by the import.
+     *
+     * @return The result of the committed part of the import
+     */
+    public ImportResult getCommitted() {
+        return committed;
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.personColorAPI.service;
+
+import com.example.personColorAPI.config.ImportConfig;
+import com.example.personColorAPI.config.ImportGovernorConfig;
+import com.example.personColorAPI.monitoring.ConnectionPoolMonitor;
+import com.example.personColorAPI.monitoring.RequestLatencyTracker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Supplier;
+
+/**
+ * Service class for governing how fast imports write to the database, so that online requests keep their latency.
+ * Every import batch acquires a permit before its duplicates are looked up and again before it is written,
+ * and releases it afterwards, so the duplicate queries are limited like the writes. The governor
+ * <ul>
+ *     <li>limits the number of rows written per second across all imports, if configured,</li>
+ *     <li>limits the number of batches written at the same time, at most "import.max-concurrent-writers"
+ *     and never more than the primary pool can serve while keeping the reserved connections free,</li>
+ *     <li>halves this limit and pauses each batch with an exponentially growing backoff while the average
+ *     request duration is above the target, threads wait for a connection or the reserved connections
+ *     are in use, and raises the limit by one again for every batch without pressure.</li>
+ * </ul>
+ * Under pressure one batch at a time is still written after the backoff, so an import always makes progress.
+ * Changes that must not interleave with import batches, such as recoloring the stored persons, run exclusively
+ * while no batch holds a permit.
+ */
+@Service
+@Slf4j
+public class ImportGovernor {
+
+    private final ImportConfig importConfig;
+    private final ImportGovernorConfig governorConfig;
+    private final RequestLatencyTracker requestLatencyTracker;
+    private final ConnectionPoolMonitor connectionPoolMonitor;
+
+    private final Object lock = new Object();
+    private int inFlight;
+    private boolean exclusive;
+    private int limit;
+    private long backoffMillis;
+    private long nextFreeNanos = System.nanoTime();
+
+    /**
+     * Constructor for the ImportGovernor that injects the required configuration and monitors.
+     *
+     * @param importConfig          Configuration for the maximum number of batches written at the same time
+     * @param governorConfig        Configuration for the rate limit, latency target, reserved connections and backoff
+     * @param requestLatencyTracker The average duration of the recent requests
+     * @param connectionPoolMonitor The load of the primary connection pool
+     */
+    public ImportGovernor(ImportConfig importConfig, ImportGovernorConfig governorConfig,
+                          RequestLatencyTracker requestLatencyTracker, ConnectionPoolMonitor connectionPoolMonitor) {
+        this.importConfig = importConfig;
+        this.governorConfig = governorConfig;
+        this.requestLatencyTracker = requestLatencyTracker;
+        this.connectionPoolMonitor = connectionPoolMonitor;
+        this.limit = Math.max(importConfig.getMaxConcurrentWriters(), 1);
+    }
+
+    /**
+     * Waits until a batch with the given number of rows may be written. Every call must be followed by
+     * a call to {@link #release()} once the batch has been written.
+     *
+     * @param rows The number of rows of the batch, or 0 for a query that writes nothing and does not count
+     *             towards the row rate
+     */
+    public void acquire(int rows) {
+        pace(rows);
+        long backoff = adjustLimit();
+        if (backoff > 0) {
+            log.debug("Import backs off for {} ms, {} batches may be written at the same time.", backoff, getLimit());
+            sleep(backoff);
+        }
+        synchronized (lock) {
+            boolean interrupted = false;
+            while (exclusive || inFlight >= limit) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            inFlight++;
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Releases the permit of a written batch.
+     */
+    public void release() {
+        synchronized (lock) {
+            inFlight--;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Runs the given action while no import batch is written. The action waits until all running batches have
+     * released their permits, and new batches wait until the action has finished.
+     *
+     * @param action The action to run
+     * @param <T>    The result type of the action
+     * @return The result of the action
+     */
+    public <T> T runExclusively(Supplier<T> action) {
+        synchronized (lock) {
+            boolean interrupted = false;
+            while (exclusive) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            exclusive = true;
+            while (inFlight > 0) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            return action.get();
+        } finally {
+            synchronized (lock) {
+                exclusive = false;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of batches that may currently be written at the same time.
+     *
+     * @return The current limit
+     */
+    public int getLimit() {
+        synchronized (lock) {
+            return limit;
+        }
+    }
+
+    /**
+     * Returns whether online requests are slow or the primary connection pool has no spare connections.
+     *
+     * @return true if imports should back off; false otherwise
+     */
+    boolean isUnderPressure() {
+        if (!governorConfig.isEnabled()) {
+            return false;
+        }
+        return requestLatencyTracker.getAverageMillis() > governorConfig.getTargetRequestLatencyMillis()
+                || connectionPoolMonitor.getThreadsAwaitingConnection() > 0
+                || connectionPoolMonitor.getFreeConnections() <= governorConfig.getReservedReadConnections();
+    }
+
+    /**
+     * Decreases the limit multiplicatively under pressure and increases it additively otherwise.
+     *
+     * @return The pause in milliseconds before the batch is written
+     */
+    private long adjustLimit() {
+        boolean underPressure = isUnderPressure();
+        synchronized (lock) {
+            int maxLimit = maxLimit();
+            if (underPressure) {
+                limit = Math.max(1, Math.min(limit, maxLimit) / 2);
+                backoffMillis = Math.min(Math.max(backoffMillis * 2, governorConfig.getMinBackoffMillis()),
+                        governorConfig.getMaxBackoffMillis());
+                return backoffMillis;
+            }
+            limit = Math.min(limit + 1, maxLimit);
+            backoffMillis = 0;
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the maximum number of batches written at the same time, leaving the reserved connections free.
+     */
+    private int maxLimit() {
+        int maxWriters = Math.max(importConfig.getMaxConcurrentWriters(), 1);
+        if (!governorConfig.isEnabled()) {
+            return maxWriters;
+        }
+        long poolLimit = (long) connectionPoolMonitor.getMaximumPoolSize() - governorConfig.getReservedReadConnections();
+        return (int) Math.max(1, Math.min(maxWriters, poolLimit));
+    }
+
+    /**
+     * Reserves the next free time slot of the rate limit for the given rows and waits until it has started.
+     */
+    private void pace(int rows) {
+        int maxRowsPerSecond = governorConfig.getMaxRowsPerSecond();
+        if (maxRowsPerSecond <= 0 || rows <= 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (lock) {
+            long now = System.nanoTime();
+            long start = Math.max(nextFreeNanos - now, 0) + now;
+            nextFreeNanos = start + rows * 1_000_000_000L / maxRowsPerSecond;
+            waitNanos = start - now;
+        }
+        if (waitNanos > 0) {
+            sleep(waitNanos / 1_000_000);
+        }
+    }
+
+    /**
+     * Pauses the current thread. An interrupted thread is not paused any further, so it can finish quickly.
+     */
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.personColorAPI.service;
+
+/**
+ * The outcome of importing a list of persons into the database.
+ *
+ * @param imported   The number of persons that were saved
+ * @param duplicates The number of persons that were skipped as duplicates
+ */
+public record ImportResult(int imported, int duplicates) {
+
+    /**
+     * An import in which nothing was saved or skipped.
+     */
+    public static final ImportResult EMPTY = new ImportResult(0, 0);
+}
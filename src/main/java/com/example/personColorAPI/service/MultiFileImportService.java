@@ -0,0 +1,194 @@
+package com.example.personColorAPI.service;
+
+import com.example.personColorAPI.config.FileConfig;
+import com.example.personColorAPI.model.Person;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service class for importing all CSV files of a directory.
+ * The files are scheduled onto a bounded pool of worker threads, and each file is read and imported
+ * independently with its own result. The number of concurrent database writers is limited by the
+ * {@link CsvImporterService} across all files. Files that have already been imported, by this or another
+ * node, are skipped and successfully imported files are recorded by the {@link ImportCoordinator}.
+ */
+@Service
+@Slf4j
+public class MultiFileImportService {
+
+    private final FileConfig fileConfig;
+    private final CsvFileReaderService csvFileReaderService;
+    private final CsvImporterService csvImporterService;
+    private final ImportCoordinator importCoordinator;
+
+    /**
+     * Constructor for the MultiFileImportService that injects the required configuration and services.
+     *
+     * @param fileConfig           Configuration for the input directory, file pattern and worker threads
+     * @param csvFileReaderService The service for reading a CSV file
+     * @param csvImporterService   The service for importing persons into the database
+     * @param importCoordinator    The service for recording and looking up imported files
+     */
+    public MultiFileImportService(FileConfig fileConfig, CsvFileReaderService csvFileReaderService,
+                                  CsvImporterService csvImporterService, ImportCoordinator importCoordinator) {
+        this.fileConfig = fileConfig;
+        this.csvFileReaderService = csvFileReaderService;
+        this.csvImporterService = csvImporterService;
+        this.importCoordinator = importCoordinator;
+    }
+
+    /**
+     * Returns whether a directory import is configured.
+     *
+     * @return true if an input directory is set; false otherwise
+     */
+    public boolean isDirectoryConfigured() {
+        return fileConfig.getDirectory() != null && !fileConfig.getDirectory().isBlank();
+    }
+
+    /**
+     * Imports all files of the configured directory that match the configured pattern.
+     *
+     * @return The result of each file in the order of the file names
+     * @throws IOException If the directory cannot be listed
+     */
+    public List<FileImportResult> importDirectory() throws IOException {
+        return importFiles(listFiles(Path.of(fileConfig.getDirectory()), fileConfig.getPattern()));
+    }
+
+    /**
+     * Imports the given files in parallel. A failing file does not stop the import of the other files.
+     *
+     * @param files The files to import
+     * @return The result of each file in the order of the given files
+     */
+    public List<FileImportResult> importFiles(List<Path> files) {
+        if (files.isEmpty()) {
+            log.warn("No files to import.");
+            return List.of();
+        }
+
+        int workerThreads = Math.max(1, Math.min(fileConfig.getWorkerThreads(), files.size()));
+        log.info("Importing {} files with {} worker threads.", files.size(), workerThreads);
+
+        PersonKeyClaims claims = new PersonKeyClaims();
+        AtomicInteger completedFiles = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workerThreads);
+        try {
+            List<Future<FileImportResult>> futures = new ArrayList<>(files.size());
+            for (Path file : files) {
+                futures.add(executor.submit(() -> {
+                    FileImportResult result = importFile(file, claims);
+                    log.info("[{}/{}] {}", completedFiles.incrementAndGet(), files.size(), describe(result));
+                    return result;
+                }));
+            }
+
+            List<FileImportResult> results = new ArrayList<>(files.size());
+            for (int i = 0; i < files.size(); i++) {
+                results.add(awaitResult(files.get(i), futures.get(i)));
+            }
+            logSummary(results);
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads and imports a single file and records the outcome instead of throwing.
+     * A file that has already been imported is skipped with an empty result. A file whose import fails
+     * after some batches were committed reports the persons of the committed batches as imported.
+     */
+    private FileImportResult importFile(Path file, PersonKeyClaims claims) {
+        long start = System.nanoTime();
+        int rowsRead = 0;
+        try {
+            FileFingerprint fingerprint = importCoordinator.isEnabled() ? FileFingerprint.of(file) : null;
+            if (fingerprint != null && importCoordinator.isImported(fingerprint)) {
+                log.info("The file {} has already been imported and is skipped.", file);
+                return new FileImportResult(file, 0, 0, 0, elapsedMillis(start), null);
+            }
+            List<Person> persons = csvFileReaderService.readCsvFile(file);
+            rowsRead = persons.size();
+            ImportResult result = csvImporterService.importPersons(persons, claims);
+            if (fingerprint != null) {
+                importCoordinator.markImported(file, fingerprint, rowsRead);
+            }
+            return new FileImportResult(file, rowsRead, result.imported(), result.duplicates(), elapsedMillis(start), null);
+        } catch (ImportFailedException e) {
+            log.error("Error importing the file {}: {}", file, e.getMessage(), e);
+            String error = String.format("%s %d of %d batches committed.", e.getMessage(), e.getCommittedBatches(), e.getTotalBatches());
+            return new FileImportResult(file, rowsRead, e.getCommitted().imported(), e.getCommitted().duplicates(),
+                    elapsedMillis(start), error);
+        } catch (Exception e) {
+            log.error("Error importing the file {}: {}", file, e.getMessage(), e);
+            return new FileImportResult(file, rowsRead, 0, 0, elapsedMillis(start), e.getMessage());
+        }
+    }
+
+    private FileImportResult awaitResult(Path file, Future<FileImportResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new FileImportResult(file, 0, 0, 0, 0, "Interrupted");
+        } catch (ExecutionException e) {
+            return new FileImportResult(file, 0, 0, 0, 0, e.getCause().getMessage());
+        }
+    }
+
+    private static List<Path> listFiles(Path directory, String pattern) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, pattern)) {
+            for (Path file : stream) {
+                if (Files.isRegularFile(file)) {
+                    files.add(file);
+                }
+            }
+        }
+        files.sort(null);
+        return files;
+    }
+
+    private static String describe(FileImportResult result) {
+        if (result.isSuccessful()) {
+            return String.format("%s: %d rows read, %d imported, %d duplicates in %d ms.", result.file().getFileName(),
+                    result.rowsRead(), result.imported(), result.duplicates(), result.durationMillis());
+        }
+        return String.format("%s failed after %d ms with %d rows imported: %s", result.file().getFileName(),
+                result.durationMillis(), result.imported(), result.error());
+    }
+
+    private static void logSummary(List<FileImportResult> results) {
+        int imported = 0;
+        int failed = 0;
+        for (FileImportResult result : results) {
+            imported += result.imported();
+            if (!result.isSuccessful()) {
+                failed++;
+            }
+        }
+        if (failed > 0) {
+            log.warn("{} of {} files could not be imported, {} persons imported in total.", failed, results.size(), imported);
+        } else {
+            log.info("{} files imported, {} persons imported in total.", results.size(), imported);
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
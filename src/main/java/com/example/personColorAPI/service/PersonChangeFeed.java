@@ -0,0 +1,274 @@
+package com.example.personColorAPI.service;
+
+import com.example.personColorAPI.config.ChangeFeedConfig;
+import com.example.personColorAPI.model.Person;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Service class that pushes newly created persons to the subscribers of the change feed as Server-Sent Events.
+ * Every committed person gets the next number of a sequence in the order in which the commits are reported,
+ * which is sent as the event id, and is kept in a bounded history. A reconnecting client resumes after the last
+ * event id it received, so persons committed later are never skipped even if they got a smaller database id.
+ * Committed creations are only added to a bounded buffer of each subscriber, and each subscriber is sent to by
+ * its own virtual thread, so a slow client never delays the others. A subscriber whose buffer is full or whose
+ * write does not finish within the write timeout is disconnected.
+ */
+@Service
+@Slf4j
+public class PersonChangeFeed {
+
+    static final String EVENT_NAME = "person-created";
+
+    static final String RESET_EVENT_NAME = "reset";
+
+    private final ChangeFeedConfig config;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService dispatcher;
+    private final ScheduledExecutorService watchdog;
+    private final Deque<Change> history = new ArrayDeque<>();
+    private long lastSequence;
+
+    /**
+     * Constructor for the PersonChangeFeed that injects the ChangeFeedConfig.
+     * The sequence starts at the start time of the node in microseconds, so an event id of an earlier run
+     * or of another node is never mistaken for one of this node.
+     *
+     * @param config Configuration for the buffers, history and timeouts of the feed
+     */
+    public PersonChangeFeed(ChangeFeedConfig config) {
+        this.config = config;
+        this.lastSequence = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        this.dispatcher = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("person-change-feed-", 0).factory());
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("person-change-feed-watchdog").daemon(true).factory());
+        long interval = Math.max(config.getWriteTimeoutMillis() / 2, 1);
+        watchdog.scheduleWithFixedDelay(this::disconnectStalled, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Closes all subscriptions and stops the sending threads.
+     */
+    @PreDestroy
+    public void stop() {
+        watchdog.shutdownNow();
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    /**
+     * Opens a subscription for persons created from now on. If the event id of the last received person is given
+     * and still in the history, the persons committed after it are sent first. Otherwise a reset event is sent
+     * first, telling the client to load the current persons again.
+     *
+     * @param colors      The colors to receive; an empty set receives all colors
+     * @param lastEventId The event id of the last person the client received, or null to receive only new persons
+     * @return The emitter of the subscription, or an empty Optional if the maximum number of subscribers is reached
+     */
+    public Optional<SseEmitter> subscribe(Set<String> colors, Long lastEventId) {
+        if (subscribers.size() >= config.getMaxSubscribers()) {
+            log.warn("The change feed already has {} subscribers, the subscription is rejected.", subscribers.size());
+            return Optional.empty();
+        }
+        Subscriber subscriber = new Subscriber(createEmitter(), Set.copyOf(colors),
+                new ArrayBlockingQueue<>(Math.max(config.getBufferSize(), 1)));
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(e -> subscribers.remove(subscriber));
+        synchronized (history) {
+            if (lastEventId != null) {
+                long oldestSequence = history.isEmpty() ? lastSequence + 1 : history.getFirst().sequence();
+                if (lastEventId >= oldestSequence - 1 && lastEventId <= lastSequence) {
+                    subscriber.pending.offer(history.stream().filter(change -> change.sequence() > lastEventId).toList());
+                } else {
+                    log.debug("The event id {} is no longer in the history, the subscriber is reset.", lastEventId);
+                    subscriber.resetRequired = true;
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        if (lastEventId != null) {
+            schedule(subscriber);
+        }
+        log.debug("New change feed subscriber for the colors {}, {} subscribers in total.", colors, subscribers.size());
+        return Optional.of(subscriber.emitter);
+    }
+
+    /**
+     * Returns the number of open subscriptions.
+     *
+     * @return The number of subscribers
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Numbers committed persons, adds them to the history and to the buffer of every subscriber. This only
+     * enqueues the persons, so the committing thread never waits for a subscriber.
+     *
+     * @param event The event with the created persons
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonsCreated(PersonsCreatedEvent event) {
+        List<Subscriber> overflowing = new ArrayList<>();
+        synchronized (history) {
+            List<Change> changes = new ArrayList<>(event.persons().size());
+            for (Person person : event.persons()) {
+                changes.add(new Change(++lastSequence, person));
+            }
+            history.addAll(changes);
+            int historySize = Math.max(config.getHistorySize(), 0);
+            while (history.size() > historySize) {
+                history.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.pending.offer(changes)) {
+                    overflowing.add(subscriber);
+                }
+            }
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (!overflowing.contains(subscriber)) {
+                schedule(subscriber);
+            }
+        }
+        for (Subscriber subscriber : overflowing) {
+            log.warn("A change feed subscriber cannot keep up and is disconnected.");
+            disconnect(subscriber);
+        }
+    }
+
+    /**
+     * Creates the emitter of a new subscription.
+     */
+    SseEmitter createEmitter() {
+        return new SseEmitter(config.getTimeoutMillis());
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.pending.isEmpty() || subscriber.resetRequired) {
+            if (subscriber.scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(() -> drain(subscriber));
+            }
+        }
+    }
+
+    /**
+     * Sends everything buffered for one subscriber. Only one thread drains a subscriber at a time.
+     */
+    private void drain(Subscriber subscriber) {
+        subscriber.sender = Thread.currentThread();
+        try {
+            if (subscriber.resetRequired) {
+                send(subscriber, SseEmitter.event().name(RESET_EVENT_NAME).data(""));
+                subscriber.resetRequired = false;
+            }
+            List<Change> changes;
+            while ((changes = subscriber.pending.poll()) != null) {
+                for (Change change : changes) {
+                    Person person = change.person();
+                    if (subscriber.colors.isEmpty() || subscriber.colors.contains(person.getColor())) {
+                        send(subscriber, SseEmitter.event()
+                                .id(String.valueOf(change.sequence()))
+                                .name(EVENT_NAME)
+                                .data(person, MediaType.APPLICATION_JSON));
+                    }
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("A change feed subscriber is gone: {}", e.getMessage());
+            disconnect(subscriber);
+            return;
+        } finally {
+            subscriber.sender = null;
+            subscriber.scheduled.set(false);
+        }
+        schedule(subscriber);
+    }
+
+    /**
+     * Sends one event and records when the write started, so the watchdog can detect a stalled client.
+     */
+    private static void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+        subscriber.sendingSinceNanos = System.nanoTime();
+        try {
+            subscriber.emitter.send(event);
+        } finally {
+            subscriber.sendingSinceNanos = 0;
+        }
+    }
+
+    /**
+     * Disconnects the subscribers whose current write has been running longer than the write timeout.
+     * The sending thread is interrupted, which aborts the blocked write.
+     */
+    void disconnectStalled() {
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(config.getWriteTimeoutMillis(), 1));
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long sendingSince = subscriber.sendingSinceNanos;
+            if (sendingSince != 0 && now - sendingSince > timeoutNanos) {
+                log.warn("A change feed subscriber did not accept an event within {} ms and is disconnected.",
+                        config.getWriteTimeoutMillis());
+                disconnect(subscriber);
+                Thread sender = subscriber.sender;
+                if (sender != null) {
+                    sender.interrupt();
+                }
+            }
+        }
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    /**
+     * A committed person with its position in the commit order.
+     */
+    private record Change(long sequence, Person person) {
+    }
+
+    /**
+     * The state of one subscription.
+     */
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<String> colors;
+        private final BlockingQueue<List<Change>> pending;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean resetRequired;
+        private volatile long sendingSinceNanos;
+        private volatile Thread sender;
+
+        private Subscriber(SseEmitter emitter, Set<String> colors, BlockingQueue<List<Change>> pending) {
+            this.emitter = emitter;
+            this.colors = colors;
+            this.pending = pending;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.personColorAPI.service;
+
+import com.example.personColorAPI.model.PersonKey;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The natural keys claimed by imports running in parallel, so that the same person is inserted only once.
+ * Every claim has an outcome: it is committed once the batch holding the person is committed, or released
+ * if that batch fails. An import that finds a key claimed by another import can wait for the outcome and
+ * import the person itself if the claim was released, so a failing batch never causes a person to be lost.
+ */
+public class PersonKeyClaims {
+
+    private static final CompletableFuture<Boolean> RELEASED = CompletableFuture.completedFuture(false);
+
+    private final ConcurrentMap<PersonKey, CompletableFuture<Boolean>> claims = new ConcurrentHashMap<>();
+
+    /**
+     * Claims the given key if no other import has claimed it.
+     *
+     * @param key The natural key to claim
+     * @return true if the key is now claimed by the caller; false if it was already claimed
+     */
+    public boolean tryClaim(PersonKey key) {
+        return claims.putIfAbsent(key, new CompletableFuture<>()) == null;
+    }
+
+    /**
+     * Returns the outcome of the claim of the given key. The outcome completes with true once the claim is
+     * committed and with false once it is released. A key that is not claimed has a released outcome.
+     *
+     * @param key The natural key to look up
+     * @return The outcome of the claim
+     */
+    public CompletableFuture<Boolean> outcome(PersonKey key) {
+        return claims.getOrDefault(key, RELEASED);
+    }
+
+    /**
+     * Returns whether the given key is claimed, committed or not.
+     *
+     * @param key The natural key to look up
+     * @return true if the key is claimed; false otherwise
+     */
+    public boolean isClaimed(PersonKey key) {
+        return claims.containsKey(key);
+    }
+
+    /**
+     * Marks the claims of the given keys as committed. The keys stay claimed.
+     *
+     * @param keys The natural keys of the persons of a committed batch
+     */
+    public void commit(Collection<PersonKey> keys) {
+        for (PersonKey key : keys) {
+            CompletableFuture<Boolean> outcome = claims.get(key);
+            if (outcome != null) {
+                outcome.complete(true);
+            }
+        }
+    }
+
+    /**
+     * Releases the claims of the given keys, so that another import can claim them again.
+     *
+     * @param keys The natural keys of persons that were not committed
+     */
+    public void release(Collection<PersonKey> keys) {
+        for (PersonKey key : keys) {
+            CompletableFuture<Boolean> outcome = claims.remove(key);
+            if (outcome != null) {
+                outcome.complete(false);
+            }
+        }
+    }
+}
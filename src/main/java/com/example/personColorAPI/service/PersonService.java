@@ -1,31 +1,57 @@
 package com.example.personColorAPI.service;
 
 import com.example.personColorAPI.model.Person;
+import com.example.personColorAPI.model.PersonLookupRequest;
+import com.example.personColorAPI.model.PersonLookupResult;
+import com.example.personColorAPI.repository.PersonFieldsRepository;
 import com.example.personColorAPI.repository.PersonRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Service class that contains the business logic for managing persons.
  * This class provides methods to retrieve and add persons.
+ * The read methods run in read-only transactions, so they are served by the read replica if one is configured.
  */
 @Service
 @Slf4j
 public class PersonService {
 
+    /**
+     * The maximum number of personIds and colors that can be looked up with one request.
+     */
+    static final int MAX_LOOKUP_KEYS = 1_000;
+
     private final PersonRepository personRepository;
+    private final GroupCommitWriter groupCommitWriter;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
-     * Constructor for the PersonService that injects the PersonRepository.
+     * Constructor for the PersonService that injects the PersonRepository, GroupCommitWriter and ApplicationEventPublisher.
      *
-     * @param personRepository Repository for Person entities
+     * @param personRepository  Repository for Person entities
+     * @param groupCommitWriter Writer that commits concurrent creations together if the group commit is enabled
+     * @param eventPublisher    Publisher for the {@link PersonsCreatedEvent} of a created person
      */
     @Autowired
-    public PersonService(PersonRepository personRepository) {
+    public PersonService(PersonRepository personRepository, GroupCommitWriter groupCommitWriter,
+                         ApplicationEventPublisher eventPublisher) {
         this.personRepository = personRepository;
+        this.groupCommitWriter = groupCommitWriter;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -33,6 +59,7 @@ public class PersonService {
      *
      * @return A list of persons
      */
+    @Transactional(readOnly = true)
     public List<Person> getAllPersons() {
         List<Person> persons = personRepository.findAll();
         log.info("The database contains {} persons.", persons.size());
@@ -45,6 +72,7 @@ public class PersonService {
      * @param personId The ID of the person to search for
      * @return A list of persons with the specified ID
      */
+    @Transactional(readOnly = true)
     public List<Person> getPersonsById(int personId) {
         List<Person> persons = personRepository.findByPersonId(personId);
         if (!persons.isEmpty()) {
@@ -61,22 +89,173 @@ public class PersonService {
      * @param color The color to search for
      * @return A list of persons with the specified color
      */
+    @Transactional(readOnly = true)
     public List<Person> getPersonsByColor(String color) {
         List<Person> persons = personRepository.findByColor(color);
         log.info("Found {} persons with the color {}.", persons.size(), color);
         return persons;
     }
 
+    /**
+     * Returns the given fields of all persons.
+     *
+     * @param fields The comma-separated fields to return
+     * @return The selected fields of all persons
+     * @throws IllegalArgumentException If no field or an unknown field is requested
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllPersons(String fields) {
+        List<Map<String, Object>> persons = personRepository.findAllFields(parseFields(fields));
+        log.info("The database contains {} persons, returning the fields {}.", persons.size(), fields);
+        return persons;
+    }
+
+    /**
+     * Returns the given fields of the persons with a specific ID.
+     *
+     * @param personId The ID of the person to search for
+     * @param fields   The comma-separated fields to return
+     * @return The selected fields of the persons with the specified ID
+     * @throws IllegalArgumentException If no field or an unknown field is requested
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getPersonsById(int personId, String fields) {
+        List<Map<String, Object>> persons = personRepository.findFieldsByPersonId(parseFields(fields), personId);
+        if (!persons.isEmpty()) {
+            log.info("{} persons with ID {} found.", persons.size(), personId);
+        } else {
+            log.warn("No persons found with ID {}.", personId);
+        }
+        return persons;
+    }
+
+    /**
+     * Returns the given fields of the persons with a specific color.
+     *
+     * @param color  The color to search for
+     * @param fields The comma-separated fields to return
+     * @return The selected fields of the persons with the specified color
+     * @throws IllegalArgumentException If no field or an unknown field is requested
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getPersonsByColor(String color, String fields) {
+        List<Map<String, Object>> persons = personRepository.findFieldsByColor(parseFields(fields), color);
+        log.info("Found {} persons with the color {}.", persons.size(), color);
+        return persons;
+    }
+
+    /**
+     * Parses a comma-separated list of fields. Blank entries and repeated fields are ignored.
+     *
+     * @param fields The comma-separated fields, for example "personId,name,color"
+     * @return The distinct fields in the requested order
+     * @throws IllegalArgumentException If no field or a field not contained in {@link PersonFieldsRepository#FIELDS} is requested
+     */
+    static List<String> parseFields(String fields) {
+        Set<String> parsed = new LinkedHashSet<>();
+        if (fields != null) {
+            for (String field : fields.split(",")) {
+                String trimmed = field.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                if (!PersonFieldsRepository.FIELDS.contains(trimmed)) {
+                    throw new IllegalArgumentException("Unknown field '" + trimmed + "', supported fields are "
+                            + PersonFieldsRepository.FIELDS + ".");
+                }
+                parsed.add(trimmed);
+            }
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("At least one field must be requested.");
+        }
+        return List.copyOf(parsed);
+    }
+
+    /**
+     * Looks up the persons for several personIds and colors at once.
+     * Each key type is resolved with a single IN query instead of one query per key.
+     *
+     * @param request The personIds and colors to look up
+     * @return The persons grouped by the requested keys
+     * @throws IllegalArgumentException If a key is null or more than {@value #MAX_LOOKUP_KEYS} keys are requested
+     */
+    @Transactional(readOnly = true)
+    public PersonLookupResult lookupPersons(PersonLookupRequest request) {
+        Map<Integer, List<Person>> byPersonId = emptyGroups(request.personIds());
+        Map<String, List<Person>> byColor = emptyGroups(request.colors());
+        if (byPersonId.size() + byColor.size() > MAX_LOOKUP_KEYS) {
+            throw new IllegalArgumentException("At most " + MAX_LOOKUP_KEYS + " keys can be looked up at once.");
+        }
+
+        if (!byPersonId.isEmpty()) {
+            for (Person person : personRepository.findByPersonIdIn(byPersonId.keySet())) {
+                byPersonId.get(person.getPersonId()).add(person);
+            }
+        }
+        if (!byColor.isEmpty()) {
+            for (Person person : personRepository.findByColorIn(byColor.keySet())) {
+                byColor.get(person.getColor()).add(person);
+            }
+        }
+        log.info("Looked up {} personIds and {} colors.", byPersonId.size(), byColor.size());
+        return new PersonLookupResult(byPersonId, byColor);
+    }
+
+    /**
+     * Creates an empty group for each distinct key, in the order of the request.
+     */
+    private static <K> Map<K, List<Person>> emptyGroups(List<K> keys) {
+        Map<K, List<Person>> groups = new LinkedHashMap<>();
+        if (keys == null) {
+            return groups;
+        }
+        for (K key : keys) {
+            if (key == null) {
+                throw new IllegalArgumentException("The lookup keys must not be null.");
+            }
+            groups.putIfAbsent(key, new ArrayList<>());
+        }
+        return groups;
+    }
+
     /**
      * Adds a new person to the database.
+     * If the group commit is enabled, the person is saved together with concurrently created persons
+     * and this method returns once that batch has been committed.
+     * A {@link PersonsCreatedEvent} is published after the person has been committed.
      *
      * @param person The person to be created
      * @return The created person
      */
     public Person addPerson(Person person) {
         log.debug("Attempting to add a new person: {}", person);
-        Person createdPerson = personRepository.save(person);
+        Person createdPerson = groupCommitWriter.isEnabled() ? addPersonInGroup(person) : personRepository.save(person);
         log.info("Person with ID {} has been added.", createdPerson.getId());
+        eventPublisher.publishEvent(new PersonsCreatedEvent(List.of(createdPerson)));
         return createdPerson;
     }
-}
\ No newline at end of file
+
+    /**
+     * Saves the person with the next group commit and waits for the commit, at most for the commit timeout.
+     *
+     * @param person The person to be created
+     * @return The created person
+     */
+    private Person addPersonInGroup(Person person) {
+        long timeoutMillis = groupCommitWriter.getCommitTimeoutMillis();
+        try {
+            return groupCommitWriter.submit(person).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("The group commit failed.", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("The group commit did not complete within " + timeoutMillis + " ms.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the group commit.", e);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.personColorAPI.service;
+
+import com.example.personColorAPI.config.SnapshotConfig;
+import com.example.personColorAPI.model.Person;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Service class for writing and reading a binary snapshot of the imported persons.
+ * The snapshot stores the fingerprint of the source file together with the persons parsed from it.
+ * It is versioned and protected by a CRC32 checksum, and it is read through a memory mapping so that
+ * an unchanged input can be restored without parsing the CSV file again.
+ */
+@Service
+@Slf4j
+public class PersonSnapshotService {
+
+    static final int MAGIC = 0x50435350;
+    static final int FORMAT_VERSION = 1;
+
+    private final SnapshotConfig snapshotConfig;
+
+    /**
+     * Constructor for the PersonSnapshotService that injects the SnapshotConfig.
+     *
+     * @param snapshotConfig Configuration for the snapshot settings
+     */
+    public PersonSnapshotService(SnapshotConfig snapshotConfig) {
+        this.snapshotConfig = snapshotConfig;
+    }
+
+    /**
+     * Returns whether snapshots are enabled.
+     *
+     * @return true if snapshots are written and read; false otherwise
+     */
+    public boolean isEnabled() {
+        return snapshotConfig.isEnabled();
+    }
+
+    /**
+     * Reads the snapshot if it was written for a source file with the given fingerprint.
+     * A missing, outdated, corrupt or incompatible snapshot results in an empty Optional.
+     *
+     * @param fingerprint The fingerprint of the current source file
+     * @return The persons stored in the snapshot, or an empty Optional if the snapshot cannot be used
+     */
+    public Optional<List<Person>> readSnapshot(FileFingerprint fingerprint) {
+        Path path = Path.of(snapshotConfig.getPath());
+        if (!Files.isRegularFile(path)) {
+            log.info("No snapshot found at {}.", path);
+            return Optional.empty();
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                log.warn("The snapshot at {} has an unknown format and is ignored.", path);
+                return Optional.empty();
+            }
+
+            FileFingerprint snapshotFingerprint = new FileFingerprint(buffer.getLong(), buffer.getLong(), readString(buffer));
+            if (!snapshotFingerprint.equals(fingerprint)) {
+                log.info("The snapshot at {} was written for a different input file and is ignored.", path);
+                return Optional.empty();
+            }
+
+            int rowCount = buffer.getInt();
+            long checksum = buffer.getLong();
+            int payloadLength = buffer.getInt();
+            ByteBuffer payload = buffer.slice(buffer.position(), payloadLength);
+
+            CRC32 crc = new CRC32();
+            crc.update(payload.duplicate());
+            if (crc.getValue() != checksum) {
+                log.warn("The snapshot at {} has an invalid checksum and is ignored.", path);
+                return Optional.empty();
+            }
+
+            List<Person> persons = new ArrayList<>(rowCount);
+            for (int i = 0; i < rowCount; i++) {
+                persons.add(readPerson(payload));
+            }
+            log.info("{} persons restored from snapshot {}.", persons.size(), path);
+            return Optional.of(persons);
+        } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException e) {
+            log.warn("The snapshot at {} could not be read and is ignored: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes a snapshot of the given persons for a source file with the given fingerprint.
+     * The snapshot is written to a temporary file first and then moved into place, so a crash
+     * never leaves a half written snapshot behind.
+     *
+     * @param fingerprint The fingerprint of the source file the persons were read from
+     * @param persons     The persons to store
+     * @throws IOException If the snapshot cannot be written
+     */
+    public void writeSnapshot(FileFingerprint fingerprint, List<Person> persons) throws IOException {
+        Path path = Path.of(snapshotConfig.getPath()).toAbsolutePath();
+        Files.createDirectories(path.getParent());
+
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream();
+        DataOutputStream payload = new DataOutputStream(payloadBytes);
+        for (Person person : persons) {
+            writePerson(payload, person);
+        }
+        payload.flush();
+        byte[] payloadArray = payloadBytes.toByteArray();
+
+        CRC32 crc = new CRC32();
+        crc.update(payloadArray);
+
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(headerBytes);
+        header.writeInt(MAGIC);
+        header.writeInt(FORMAT_VERSION);
+        header.writeLong(fingerprint.size());
+        header.writeLong(fingerprint.lastModifiedMillis());
+        writeString(header, fingerprint.sha256());
+        header.writeInt(persons.size());
+        header.writeLong(crc.getValue());
+        header.writeInt(payloadArray.length);
+        header.flush();
+
+        Path tempFile = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer[] buffers = {ByteBuffer.wrap(headerBytes.toByteArray()), ByteBuffer.wrap(payloadArray)};
+            while (buffers[1].hasRemaining()) {
+                channel.write(buffers);
+            }
+            channel.force(true);
+        }
+        Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Snapshot with {} persons written to {}.", persons.size(), path);
+    }
+
+    private static void writePerson(DataOutputStream out, Person person) throws IOException {
+        out.writeInt(person.getPersonId());
+        writeString(out, person.getName());
+        writeString(out, person.getLastname());
+        writeString(out, person.getZipcode());
+        writeString(out, person.getCity());
+        writeString(out, person.getColor());
+    }
+
+    private static Person readPerson(ByteBuffer buffer) {
+        Person person = new Person();
+        person.setPersonId(buffer.getInt());
+        person.setName(readString(buffer));
+        person.setLastname(readString(buffer));
+        person.setZipcode(readString(buffer));
+        person.setCity(readString(buffer));
+        person.setColor(readString(buffer));
+        return person;
+    }
+
+    /**
+     * Writes a string as its UTF-8 length followed by its bytes. A null value is stored with length -1.
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
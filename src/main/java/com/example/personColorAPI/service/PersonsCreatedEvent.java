@@ -0,0 +1,14 @@
+package com.example.personColorAPI.service;
+
+import com.example.personColorAPI.model.Person;
+
+import java.util.List;
+
+/**
+ * Published after newly created persons have been committed, either by a single creation
+ * or by one batch of an import.
+ *
+ * @param persons The created persons with their generated ids
+ */
+public record PersonsCreatedEvent(List<Person> persons) {
+}
@@ -0,0 +1,16 @@
+package com.example.personColorAPI.service;
+
+/**
+ * The reasons why a CSV row is rejected instead of being converted into a Person.
+ */
+public enum RejectReason {
+    /**
+     * The row does not consist of exactly four comma separated fields.
+     */
+    WRONG_FIELD_COUNT,
+
+    /**
+     * The personId field is not a valid integer.
+     */
+    INVALID_PERSON_ID
+}
@@ -0,0 +1,172 @@
+package com.example.personColorAPI.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Collects the rejected rows of one CSV file and writes them to a rejects file on a background thread.
+ * Each line of the rejects file has the form {@code lineNumber,REASON,raw row}, so the original rows can be
+ * recovered by removing the first two fields and replayed once they are fixed.
+ * Rejecting a row only enqueues it; the parser blocks only if the writer falls behind by a full queue.
+ */
+@Slf4j
+class RejectWriter implements Closeable {
+
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final String END_OF_STREAM = new String("END_OF_STREAM");
+
+    private final Path file;
+    private final boolean append;
+    private final BlockingQueue<String> queue;
+    private final Thread writerThread;
+    private int rejectedRows;
+
+    private RejectWriter(Path file, boolean append) {
+        this.file = file;
+        this.append = append;
+        this.queue = file == null ? null : new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        this.writerThread = file == null ? null : Thread.ofPlatform()
+                .name("reject-writer-" + file.getFileName())
+                .daemon(true)
+                .start(this::drainQueue);
+    }
+
+    /**
+     * Opens a reject writer for the given source file that writes into the given directory.
+     * If no directory is given, rejected rows are only counted.
+     *
+     * @param rejectsDirectory The directory for the rejects file, or null to only count rejected rows
+     * @param source           The CSV file the rows are read from
+     * @return A new reject writer
+     * @throws IOException If the rejects directory cannot be created
+     */
+    static RejectWriter open(String rejectsDirectory, Path source) throws IOException {
+        return open(rejectsDirectory, source, false);
+    }
+
+    /**
+     * Opens a reject writer for the given source file that writes into the given directory.
+     * If no directory is given, rejected rows are only counted.
+     *
+     * @param rejectsDirectory The directory for the rejects file, or null to only count rejected rows
+     * @param source           The CSV file the rows are read from
+     * @param append           Whether rows are appended to an existing rejects file instead of replacing it
+     * @return A new reject writer
+     * @throws IOException If the rejects directory cannot be created
+     */
+    static RejectWriter open(String rejectsDirectory, Path source, boolean append) throws IOException {
+        if (rejectsDirectory == null || rejectsDirectory.isBlank()) {
+            return new RejectWriter(null, append);
+        }
+        Path directory = Files.createDirectories(Path.of(rejectsDirectory));
+        return new RejectWriter(directory.resolve(source.getFileName() + ".rejects.csv"), append);
+    }
+
+    /**
+     * Records a rejected row.
+     *
+     * @param lineNumber The line number of the row within the source file, starting at 1
+     * @param reason     The reason why the row was rejected
+     * @param row        The raw content of the row
+     */
+    void reject(long lineNumber, RejectReason reason, String row) {
+        rejectedRows++;
+        if (queue == null) {
+            return;
+        }
+        try {
+            queue.put(lineNumber + "," + reason.name() + "," + row);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the number of rejected rows.
+     *
+     * @return The number of rows rejected so far
+     */
+    int getRejectedRows() {
+        return rejectedRows;
+    }
+
+    /**
+     * Returns the rejects file.
+     *
+     * @return The path of the rejects file, or null if rejected rows are only counted
+     */
+    Path getFile() {
+        return file;
+    }
+
+    /**
+     * Waits until all rejected rows are written and closes the rejects file.
+     */
+    @Override
+    public void close() {
+        if (writerThread == null) {
+            return;
+        }
+        try {
+            queue.put(END_OF_STREAM);
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes the queued rows until the end of the stream is reached. If the rejects file cannot be written,
+     * the remaining rows are still taken from the queue so that the parser is never blocked.
+     */
+    private void drainQueue() {
+        BufferedWriter writer = null;
+        try {
+            writer = append
+                    ? Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)
+                    : Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.error("Error opening the rejects file {}: {}", file, e.getMessage());
+        }
+
+        try {
+            String line;
+            while ((line = queue.take()) != END_OF_STREAM) {
+                if (writer != null) {
+                    try {
+                        writer.write(line);
+                        writer.newLine();
+                    } catch (IOException e) {
+                        log.error("Error writing the rejects file {}: {}", file, e.getMessage());
+                        closeQuietly(writer);
+                        writer = null;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeQuietly(writer);
+        }
+    }
+
+    private void closeQuietly(BufferedWriter writer) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.error("Error closing the rejects file {}: {}", file, e.getMessage());
+        }
+    }
+}
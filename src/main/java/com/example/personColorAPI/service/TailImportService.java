@@ -0,0 +1,395 @@
+package com.example.personColorAPI.service;
+
+import com.example.personColorAPI.config.ColorConfig;
+import com.example.personColorAPI.config.DataSourceRoutingContext;
+import com.example.personColorAPI.config.FileConfig;
+import com.example.personColorAPI.config.ImportConfig;
+import com.example.personColorAPI.config.TailImportConfig;
+import com.example.personColorAPI.model.ImportCheckpoint;
+import com.example.personColorAPI.model.ImportedFile;
+import com.example.personColorAPI.model.Person;
+import com.example.personColorAPI.model.PersonKey;
+import com.example.personColorAPI.monitoring.ImportBatchEvent;
+import com.example.personColorAPI.repository.ImportCheckpointRepository;
+import com.example.personColorAPI.repository.PersonRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Service class for importing a growing CSV file incrementally.
+ * The file is checked periodically, and only the complete rows appended after the last checkpoint are parsed
+ * and imported in batches. Each batch is committed together with the new checkpoint in one transaction,
+ * so after a crash or restart the import resumes exactly after the last committed row without re-reading
+ * or re-checking the rows before it. A file that became shorter or whose first bytes changed is treated
+ * as rotated and imported again from the start. Persons that already exist in the database or occur earlier
+ * in the file are skipped, so a rotation detected by mistake does not import them twice. A file that was
+ * already imported completely before the tail mode was switched on starts after the imported content.
+ */
+@Service
+@Slf4j
+public class TailImportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int HEAD_LENGTH = 1024;
+    private static final String EVENT_SOURCE = "tail";
+
+    private final FileConfig fileConfig;
+    private final TailImportConfig tailImportConfig;
+    private final CsvFileReaderService csvFileReaderService;
+    private final PersonRepository personRepository;
+    private final ImportCheckpointRepository importCheckpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ImportGovernor importGovernor;
+    private final ImportCoordinator importCoordinator;
+    private final ColorConfig colorConfig;
+    private final int batchSize;
+    private volatile boolean running;
+    private Thread tailThread;
+
+    /**
+     * Constructor for the TailImportService that injects the required configuration, services and repositories.
+     *
+     * @param fileConfig                 Configuration for the path of the watched file and the rejects directory
+     * @param tailImportConfig           Configuration for the tail mode and the poll interval
+     * @param importConfig               Configuration for the batch size
+     * @param csvFileReaderService       The service for parsing CSV rows
+     * @param personRepository           Repository for Person entities
+     * @param importCheckpointRepository Repository for the checkpoints of the watched files
+     * @param transactionTemplate        Template for committing a batch together with its checkpoint
+     * @param eventPublisher             Publisher for the {@link PersonsCreatedEvent} of each committed batch
+     * @param importGovernor             The governor limiting the write rate of the import
+     * @param importCoordinator          The coordinator holding the records of completely imported files
+     * @param colorConfig                The active color mapping, applied to each batch right before it is written
+     */
+    public TailImportService(FileConfig fileConfig, TailImportConfig tailImportConfig, ImportConfig importConfig,
+                             CsvFileReaderService csvFileReaderService, PersonRepository personRepository,
+                             ImportCheckpointRepository importCheckpointRepository, TransactionTemplate transactionTemplate,
+                             ApplicationEventPublisher eventPublisher, ImportGovernor importGovernor,
+                             ImportCoordinator importCoordinator, ColorConfig colorConfig) {
+        this.fileConfig = fileConfig;
+        this.tailImportConfig = tailImportConfig;
+        this.csvFileReaderService = csvFileReaderService;
+        this.personRepository = personRepository;
+        this.importCheckpointRepository = importCheckpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.importGovernor = importGovernor;
+        this.importCoordinator = importCoordinator;
+        this.colorConfig = colorConfig;
+        this.batchSize = Math.max(importConfig.getBatchSize(), 1);
+    }
+
+    /**
+     * Returns whether the file at the file path is imported incrementally.
+     *
+     * @return true if the tail mode is enabled and a file path is set; false otherwise
+     */
+    public boolean isEnabled() {
+        return tailImportConfig.isEnabled() && fileConfig.getFilePath() != null && !fileConfig.getFilePath().isBlank();
+    }
+
+    /**
+     * Starts watching the file once the application is ready, if the tail mode is enabled.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        running = true;
+        tailThread = Thread.ofPlatform().name("tail-import").daemon(true).start(this::watch);
+        log.info("Tail import of {} started with a poll interval of {} ms.", fileConfig.getFilePath(),
+                tailImportConfig.getPollIntervalMillis());
+    }
+
+    /**
+     * Stops watching the file and waits for the running batch to finish.
+     */
+    @PreDestroy
+    public void stop() {
+        if (tailThread == null) {
+            return;
+        }
+        running = false;
+        tailThread.interrupt();
+        try {
+            tailThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void watch() {
+        Path path = Path.of(fileConfig.getFilePath());
+        while (running) {
+            try {
+                importTail(path);
+            } catch (Exception e) {
+                log.error("Error importing the tail of {}: {}", path, e.getMessage(), e);
+            }
+            try {
+                Thread.sleep(Math.max(tailImportConfig.getPollIntervalMillis(), 1));
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Imports the complete rows appended to the file since its last checkpoint. A row without a trailing
+     * line break is left for the next call, because it may still be written.
+     *
+     * @param path The path of the watched file
+     * @return The number of imported persons
+     * @throws IOException If the file cannot be read
+     */
+    public long importTail(Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            log.debug("The watched file {} does not exist yet.", path);
+            return 0;
+        }
+        if (CsvFileReaderService.isCompressed(path)) {
+            log.warn("The watched file {} is compressed and cannot be imported incrementally.", path);
+            return 0;
+        }
+
+        String fileKey = path.toAbsolutePath().normalize().toString();
+        ImportCheckpoint checkpoint = DataSourceRoutingContext.onPrimary(() -> importCheckpointRepository.findById(fileKey))
+                .orElse(null);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (checkpoint == null) {
+                checkpoint = newCheckpoint(path, channel, fileKey);
+            }
+            long size = channel.size();
+            if (size < checkpoint.getByteOffset() || !headMatches(channel, checkpoint)) {
+                log.warn("The watched file {} was truncated or rotated, it is imported again from the start.", path);
+                checkpoint.setByteOffset(0);
+                checkpoint.setLineCount(0);
+                checkpoint.setHeadLength(0);
+            }
+            if (size == checkpoint.getByteOffset()) {
+                return 0;
+            }
+            return importFrom(path, channel, checkpoint);
+        } catch (ObjectOptimisticLockingFailureException | DataIntegrityViolationException e) {
+            log.info("The checkpoint of {} was advanced by another node, the tail is imported again on the next poll.", path);
+            return 0;
+        }
+    }
+
+    /**
+     * Reads the rows after the checkpoint and commits them in batches together with the advanced checkpoint.
+     */
+    private long importFrom(Path path, FileChannel channel, ImportCheckpoint checkpoint) throws IOException {
+        long startOffset = checkpoint.getByteOffset();
+        long offset = startOffset;
+        long lineEndOffset = startOffset;
+        long lineNumber = checkpoint.getLineCount();
+        long imported = 0;
+        List<Person> batch = new ArrayList<>();
+        Set<PersonKey> fileKeys = new HashSet<>();
+        BoundedStringInterner interner = new BoundedStringInterner(fileConfig.getInternCapacity());
+        ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+
+        channel.position(startOffset);
+        try (RejectWriter rejects = RejectWriter.open(fileConfig.getRejectsDirectory(), path, true)) {
+            InputStream in = new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE);
+            int b;
+            while ((b = in.read()) != -1) {
+                offset++;
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                lineNumber++;
+                lineEndOffset = offset;
+                Person person = csvFileReaderService.parseRow(stripCarriageReturn(line.toString(StandardCharsets.UTF_8)),
+                        lineNumber, interner, rejects);
+                line.reset();
+                if (person != null && fileKeys.add(PersonKey.of(person))) {
+                    batch.add(person);
+                }
+                if (batch.size() >= batchSize) {
+                    long recordCount = checkpoint.getRecordCount();
+                    checkpoint = commit(channel, checkpoint, batch, lineEndOffset, lineNumber);
+                    imported += checkpoint.getRecordCount() - recordCount;
+                    batch = new ArrayList<>();
+                }
+            }
+            if (lineEndOffset > checkpoint.getByteOffset()) {
+                long recordCount = checkpoint.getRecordCount();
+                imported += commit(channel, checkpoint, batch, lineEndOffset, lineNumber).getRecordCount() - recordCount;
+            }
+            if (rejects.getRejectedRows() > 0) {
+                log.warn("{} appended rows of {} were rejected.", rejects.getRejectedRows(), path);
+            }
+        }
+        if (imported > 0) {
+            log.info("{} persons imported from the tail of {} ({} bytes).", imported, path, lineEndOffset - startOffset);
+        }
+        return imported;
+    }
+
+    /**
+     * Saves the persons of the batch that do not exist yet, colored by the active mapping, and the advanced checkpoint
+     * in one transaction while holding a permit of the {@link ImportGovernor}, publishes them once they are committed and records the batch
+     * as an {@link ImportBatchEvent}.
+     */
+    private ImportCheckpoint commit(FileChannel channel, ImportCheckpoint checkpoint, List<Person> batch,
+                                    long byteOffset, long lineCount) throws IOException {
+        if (checkpoint.getHeadLength() < HEAD_LENGTH) {
+            int headLength = (int) Math.min(HEAD_LENGTH, channel.size());
+            checkpoint.setHeadLength(headLength);
+            checkpoint.setHeadHash(hashHead(channel, headLength));
+        }
+        checkpoint.setByteOffset(byteOffset);
+        checkpoint.setLineCount(lineCount);
+        checkpoint.setUpdatedAt(Instant.now());
+
+        ImportBatchEvent insertEvent = ImportBatchEvent.start(EVENT_SOURCE, ImportBatchEvent.INSERT);
+        List<Person> newPersons = new ArrayList<>(batch.size());
+        ImportCheckpoint committed;
+        long waitStart = System.nanoTime();
+        importGovernor.acquire(batch.size());
+        long governorWaitNanos = System.nanoTime() - waitStart;
+        try {
+            committed = transactionTemplate.execute(status -> {
+                newPersons.clear();
+                Set<PersonKey> existingKeys = personRepository.findExistingKeys(batch.stream().map(PersonKey::of).toList());
+                for (Person person : batch) {
+                    if (!existingKeys.contains(PersonKey.of(person))) {
+                        newPersons.add(person);
+                    }
+                }
+                if (!newPersons.isEmpty()) {
+                    newPersons.forEach(person -> person.setColor(colorConfig.colorOf(person.getPersonId())));
+                    personRepository.saveAll(newPersons);
+                }
+                checkpoint.setRecordCount(checkpoint.getRecordCount() + newPersons.size());
+                return importCheckpointRepository.save(checkpoint);
+            });
+        } finally {
+            importGovernor.release();
+        }
+        insertEvent.complete(newPersons.size(), batch.size() - newPersons.size(), governorWaitNanos);
+        if (!newPersons.isEmpty()) {
+            eventPublisher.publishEvent(new PersonsCreatedEvent(List.copyOf(newPersons)));
+        }
+        return committed;
+    }
+
+    /**
+     * Creates the first checkpoint of the file. If the file, or the beginning it had when it was imported
+     * completely by the startup or directory import, is recorded as imported, the checkpoint starts after the
+     * last complete row of that content and is saved right away, so the content is neither read nor hashed again.
+     */
+    private ImportCheckpoint newCheckpoint(Path path, FileChannel channel, String fileKey) throws IOException {
+        ImportCheckpoint checkpoint = new ImportCheckpoint(fileKey);
+        ImportedFile importedFile = importCoordinator.findImported(path).orElse(null);
+        if (importedFile == null || importedFile.getSize() == 0 || importedFile.getSize() > channel.size()) {
+            return checkpoint;
+        }
+
+        MessageDigest digest = newDigest();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long position = 0;
+        long lineEndOffset = 0;
+        long lineCount = 0;
+        while (position < importedFile.getSize()) {
+            buffer.clear().limit((int) Math.min(BUFFER_SIZE, importedFile.getSize() - position));
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                return checkpoint;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    lineCount++;
+                    lineEndOffset = position + i + 1;
+                }
+            }
+            buffer.flip();
+            digest.update(buffer);
+            position += read;
+        }
+        if (lineEndOffset == 0 || !HexFormat.of().formatHex(digest.digest()).equals(importedFile.getSha256())) {
+            return checkpoint;
+        }
+
+        int headLength = (int) Math.min(HEAD_LENGTH, channel.size());
+        checkpoint.setHeadLength(headLength);
+        checkpoint.setHeadHash(hashHead(channel, headLength));
+        checkpoint.setByteOffset(lineEndOffset);
+        checkpoint.setLineCount(lineCount);
+        checkpoint.setRecordCount(importedFile.getRowCount());
+        checkpoint.setUpdatedAt(Instant.now());
+        log.info("{} was already imported completely, its tail import starts after line {}.", path, lineCount);
+        return DataSourceRoutingContext.onPrimary(() -> importCheckpointRepository.save(checkpoint));
+    }
+
+    /**
+     * Checks that the first bytes of the file are still the ones the checkpoint was written for.
+     */
+    private static boolean headMatches(FileChannel channel, ImportCheckpoint checkpoint) throws IOException {
+        if (checkpoint.getHeadLength() == 0) {
+            return true;
+        }
+        if (channel.size() < checkpoint.getHeadLength()) {
+            return false;
+        }
+        return hashHead(channel, checkpoint.getHeadLength()).equals(checkpoint.getHeadHash());
+    }
+
+    private static String hashHead(FileChannel channel, int length) throws IOException {
+        ByteBuffer head = ByteBuffer.allocate(length);
+        while (head.hasRemaining()) {
+            if (channel.read(head, head.position()) < 0) {
+                break;
+            }
+        }
+        head.flip();
+        MessageDigest digest = newDigest();
+        digest.update(head);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+
+    private static String stripCarriageReturn(String row) {
+        return row.endsWith("\r") ? row.substring(0, row.length() - 1) : row;
+    }
+}
@@ -0,0 +1,376 @@
+package com.example.personColorAPI;
+
+import com.example.personColorAPI.repository.PersonRepository;
+import com.example.personColorAPI.service.CsvFileReaderService;
+import com.example.personColorAPI.service.CsvImporterService;
+import com.example.personColorAPI.service.ImportResult;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Soak test running a CSV import while many clients create persons and read them by personId and color.
+ * It runs against the embedded H2 database over real HTTP connections for several minutes, prints the throughput
+ * and latency of every operation per interval, and checks that no natural key was stored twice and that
+ * the number of stored persons matches the accepted writes. Requests shed by the concurrency limit with 503
+ * are counted separately and are not errors.
+ * It is excluded from the regular build and runs with {@code ./gradlew soakTest}. The duration and load can be
+ * changed with the system properties soak.durationSeconds, soak.readers, soak.writers, soak.importFiles and
+ * soak.rowsPerFile.
+ */
+@Tag("soak")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+class PersonApiSoakTest {
+
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("soak.durationSeconds", 180));
+    private static final int READERS = Integer.getInteger("soak.readers", 24);
+    private static final int WRITERS = Integer.getInteger("soak.writers", 8);
+    private static final int IMPORT_FILES = Integer.getInteger("soak.importFiles", 40);
+    private static final int ROWS_PER_FILE = Integer.getInteger("soak.rowsPerFile", 250);
+    private static final long WINDOW_NANOS = Duration.ofSeconds(10).toNanos();
+    private static final String CREATED_COLOR = "soak";
+    private static final String IMPORTED_LASTNAME_PREFIX = "Soak";
+    private static final List<String> COLORS = List.of("blau", "grün", "violett", "rot", "gelb", "türkis", "weiß");
+
+    /**
+     * The operations of the soak test.
+     */
+    private enum Operation {
+        IMPORT_FILE, CREATE_PERSON, READ_BY_ID, READ_BY_COLOR
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CsvFileReaderService csvFileReaderService;
+
+    @Autowired
+    private CsvImporterService csvImporterService;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @TempDir
+    private Path tempDir;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    /**
+     * Runs the mixed workload and checks the stored persons afterwards.
+     * Every imported file must be imported completely, importing it again must import nothing, every accepted
+     * create must be stored exactly once and no natural key may occur twice.
+     */
+    @Test
+    void soakMixedWorkload() throws Exception {
+        long seeded = seedReadKeys();
+        long storedBefore = personRepository.count();
+        long start = System.nanoTime();
+        long deadline = start + DURATION.toNanos();
+
+        ExecutorService executor = Executors.newFixedThreadPool(READERS + WRITERS + 1);
+        List<Future<Map<Operation, Recorder>>> futures = new ArrayList<>();
+        try {
+            futures.add(executor.submit(() -> runImports(start, deadline)));
+            for (int writer = 0; writer < WRITERS; writer++) {
+                int writerId = writer;
+                futures.add(executor.submit(() -> runWriter(writerId, start, deadline)));
+            }
+            for (int reader = 0; reader < READERS; reader++) {
+                int readerId = reader;
+                futures.add(executor.submit(() -> runReader(readerId, start, deadline)));
+            }
+
+            Map<Operation, Recorder> totals = new EnumMap<>(Operation.class);
+            for (Operation operation : Operation.values()) {
+                totals.put(operation, new Recorder(start));
+            }
+            for (Future<Map<Operation, Recorder>> future : futures) {
+                future.get().forEach((operation, recorder) -> totals.get(operation).merge(recorder));
+            }
+            printReport(totals);
+
+            for (Map.Entry<Operation, Recorder> entry : totals.entrySet()) {
+                assertEquals(0, entry.getValue().errors, entry.getKey() + " failed: " + entry.getValue().firstError);
+                assertTrue(entry.getValue().accepted() > 0, entry.getKey() + " was never executed.");
+            }
+
+            long imported = totals.get(Operation.IMPORT_FILE).rows;
+            long created = totals.get(Operation.CREATE_PERSON).accepted();
+            assertEquals(storedBefore + imported + created, personRepository.count());
+            assertEquals(created, countWhere("p.color = :value", CREATED_COLOR));
+            assertEquals(seeded + imported, countWhere("p.lastname like :value", IMPORTED_LASTNAME_PREFIX + "%"));
+            assertEquals(List.of(), entityManager.createQuery(
+                    "select p.name, p.lastname, p.zipcode, p.personId from Person p "
+                            + "group by p.name, p.lastname, p.zipcode, p.personId having count(p) > 1").getResultList());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Imports one extra file before the workers start, so every personId and color the readers request exists
+     * and a read is never answered with 404 or 204 because the first scheduled import has not committed yet.
+     *
+     * @return The number of imported rows
+     */
+    private long seedReadKeys() throws IOException {
+        ImportResult result = csvImporterService.importPersons(csvFileReaderService.readCsvFile(writeCsvFile(IMPORT_FILES)));
+        assertEquals(ROWS_PER_FILE, result.imported(), "The seed file was not imported completely.");
+        return result.imported();
+    }
+
+    /**
+     * Imports the generated files spread over the run and imports every file a second time right after it,
+     * which must not import any person again.
+     */
+    private Map<Operation, Recorder> runImports(long start, long deadline) throws IOException, InterruptedException {
+        Recorder recorder = new Recorder(start);
+        long intervalNanos = (deadline - start) / IMPORT_FILES;
+        for (int file = 0; file < IMPORT_FILES && System.nanoTime() < deadline; file++) {
+            long plannedStart = start + file * intervalNanos;
+            long waitNanos = plannedStart - System.nanoTime();
+            if (waitNanos > 0) {
+                Thread.sleep(waitNanos / 1_000_000);
+            }
+
+            Path csv = writeCsvFile(file);
+            long operationStart = System.nanoTime();
+            ImportResult result = csvImporterService.importPersons(csvFileReaderService.readCsvFile(csv));
+            ImportResult repeated = csvImporterService.importPersons(csvFileReaderService.readCsvFile(csv));
+            if (result.imported() != ROWS_PER_FILE || repeated.imported() != 0) {
+                recorder.error(String.format("File %d: %d of %d rows imported, %d imported again.",
+                        file, result.imported(), ROWS_PER_FILE, repeated.imported()));
+            } else {
+                recorder.accepted(operationStart);
+            }
+            recorder.rows += result.imported();
+        }
+        return Map.of(Operation.IMPORT_FILE, recorder);
+    }
+
+    /**
+     * Creates persons with natural keys that are unique to this writer until the deadline.
+     */
+    private Map<Operation, Recorder> runWriter(int writer, long start, long deadline) {
+        Recorder recorder = new Recorder(start);
+        for (int n = 0; System.nanoTime() < deadline; n++) {
+            String body = String.format("""
+                    {"personId": %d, "name": "Writer%d-%d", "lastname": "Created", "zipcode": "10115", "city": "Berlin", "color": "%s"}
+                    """, 1_000 + writer, writer, n, CREATED_COLOR);
+            HttpRequest request = HttpRequest.newBuilder(uri("/persons"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            send(recorder, request, 201);
+        }
+        return Map.of(Operation.CREATE_PERSON, recorder);
+    }
+
+    /**
+     * Reads persons by a random personId or color until the deadline.
+     */
+    private Map<Operation, Recorder> runReader(int reader, long start, long deadline) {
+        Random random = new Random(reader);
+        Recorder byId = new Recorder(start);
+        Recorder byColor = new Recorder(start);
+        while (System.nanoTime() < deadline) {
+            if (random.nextBoolean()) {
+                send(byId, HttpRequest.newBuilder(uri("/persons/" + (1 + random.nextInt(COLORS.size())))).GET().build(), 200);
+            } else {
+                String color = URLEncoder.encode(COLORS.get(random.nextInt(COLORS.size())), StandardCharsets.UTF_8);
+                send(byColor, HttpRequest.newBuilder(uri("/persons/color/" + color)).GET().build(), 200);
+            }
+        }
+        return Map.of(Operation.READ_BY_ID, byId, Operation.READ_BY_COLOR, byColor);
+    }
+
+    /**
+     * Sends the request and records it as accepted, shed with 503 or failed.
+     */
+    private void send(Recorder recorder, HttpRequest request, int expectedStatus) {
+        long operationStart = System.nanoTime();
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() == expectedStatus) {
+                recorder.accepted(operationStart);
+            } else if (response.statusCode() == 503) {
+                recorder.shed++;
+            } else {
+                recorder.error(request.method() + " " + request.uri().getPath() + " returned " + response.statusCode());
+            }
+        } catch (IOException e) {
+            recorder.error(request.method() + " " + request.uri().getPath() + " failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            recorder.error("Interrupted");
+        }
+    }
+
+    private Path writeCsvFile(int file) throws IOException {
+        StringBuilder csv = new StringBuilder();
+        for (int row = 0; row < ROWS_PER_FILE; row++) {
+            csv.append(IMPORTED_LASTNAME_PREFIX).append(file).append(", Row").append(row).append(", ")
+                    .append(20_000 + row).append(" Soakstadt, ").append(1 + row % COLORS.size()).append('\n');
+        }
+        Path path = tempDir.resolve("soak-" + file + ".csv");
+        Files.writeString(path, csv, StandardCharsets.UTF_8);
+        return path;
+    }
+
+    private long countWhere(String condition, String value) {
+        return entityManager.createQuery("select count(p) from Person p where " + condition, Long.class)
+                .setParameter("value", value)
+                .getSingleResult();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    /**
+     * Prints throughput and latency percentiles per operation, followed by the throughput per interval.
+     */
+    private static void printReport(Map<Operation, Recorder> totals) {
+        double seconds = DURATION.toMillis() / 1_000.0;
+        System.out.printf("Soak test over %.0f s with %d readers, %d writers and %d import files of %d rows:%n",
+                seconds, READERS, WRITERS, IMPORT_FILES, ROWS_PER_FILE);
+        System.out.printf("%-14s %10s %8s %8s %10s %9s %9s %9s %9s%n",
+                "Operation", "Accepted", "Shed", "Errors", "Ops/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Map.Entry<Operation, Recorder> entry : totals.entrySet()) {
+            Recorder recorder = entry.getValue();
+            long[] latencies = recorder.sortedLatencies();
+            System.out.printf("%-14s %10d %8d %8d %10.1f %9.1f %9.1f %9.1f %9.1f%n", entry.getKey(),
+                    recorder.accepted(), recorder.shed, recorder.errors, recorder.accepted() / seconds,
+                    percentileMillis(latencies, 0.50), percentileMillis(latencies, 0.95),
+                    percentileMillis(latencies, 0.99), percentileMillis(latencies, 1.0));
+        }
+
+        System.out.printf("Accepted operations per %d s interval:%n", WINDOW_NANOS / 1_000_000_000);
+        int windows = (int) ((DURATION.toNanos() + WINDOW_NANOS - 1) / WINDOW_NANOS);
+        for (int window = 0; window < windows; window++) {
+            StringBuilder line = new StringBuilder(String.format("%5d s", window * WINDOW_NANOS / 1_000_000_000));
+            for (Map.Entry<Operation, Recorder> entry : totals.entrySet()) {
+                line.append(String.format("  %s=%d", entry.getKey(), entry.getValue().windowCount(window)));
+            }
+            System.out.println(line);
+        }
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(percentile * sortedNanos.length) - 1);
+        return sortedNanos[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    /**
+     * Records the outcome and latency of the operations of one thread. Each thread has its own recorders,
+     * so recording does not add contention; the recorders are merged after the run.
+     */
+    private static final class Recorder {
+
+        private final long start;
+        private long[] latencies = new long[1_024];
+        private int size;
+        private long[] windowCounts = new long[16];
+        private long shed;
+        private long errors;
+        private long rows;
+        private String firstError;
+
+        private Recorder(long start) {
+            this.start = start;
+        }
+
+        private void accepted(long operationStart) {
+            long end = System.nanoTime();
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = end - operationStart;
+            int window = (int) ((end - start) / WINDOW_NANOS);
+            if (window >= windowCounts.length) {
+                windowCounts = Arrays.copyOf(windowCounts, Math.max(window + 1, windowCounts.length * 2));
+            }
+            windowCounts[window]++;
+        }
+
+        private void error(String message) {
+            if (firstError == null) {
+                firstError = message;
+            }
+            errors++;
+        }
+
+        private long accepted() {
+            return size;
+        }
+
+        private long windowCount(int window) {
+            return window < windowCounts.length ? windowCounts[window] : 0;
+        }
+
+        private long[] sortedLatencies() {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        private void merge(Recorder other) {
+            if (size + other.size > latencies.length) {
+                latencies = Arrays.copyOf(latencies, size + other.size);
+            }
+            System.arraycopy(other.latencies, 0, latencies, size, other.size);
+            size += other.size;
+            if (other.windowCounts.length > windowCounts.length) {
+                windowCounts = Arrays.copyOf(windowCounts, other.windowCounts.length);
+            }
+            for (int window = 0; window < other.windowCounts.length; window++) {
+                windowCounts[window] += other.windowCounts[window];
+            }
+            shed += other.shed;
+            errors += other.errors;
+            rows += other.rows;
+            if (firstError == null) {
+                firstError = other.firstError;
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.personColorAPI.config;
+
+import com.example.personColorAPI.model.Person;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmark comparing the size and serialization time of a large list of persons in JSON, CBOR and Smile.
+ * It is excluded from the regular build and runs with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class BinaryFormatBenchmarkTest {
+
+    private static final int PERSONS = 100_000;
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int MEASURED_ROUNDS = 20;
+
+    /**
+     * Serializes the same persons in every format and prints bytes and median time per format.
+     * The binary formats must be smaller than JSON.
+     */
+    @Test
+    void benchmarkSerialization() throws Exception {
+        List<Person> persons = createPersons();
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("JSON", Jackson2ObjectMapperBuilder.json().build());
+        mappers.put("CBOR", Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build());
+        mappers.put("Smile", Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build());
+
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        System.out.printf("Serialization of %d persons (median of %d rounds):%n", PERSONS, MEASURED_ROUNDS);
+        System.out.printf("%-6s %12s %10s %10s%n", "Format", "Bytes", "Ratio", "ms");
+        for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+            ObjectMapper mapper = entry.getValue();
+            int size = 0;
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                size = mapper.writeValueAsBytes(persons).length;
+            }
+            long[] nanos = new long[MEASURED_ROUNDS];
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                long start = System.nanoTime();
+                mapper.writeValueAsBytes(persons);
+                nanos[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(nanos);
+            sizes.put(entry.getKey(), size);
+            System.out.printf("%-6s %12d %10.2f %10.1f%n", entry.getKey(), size,
+                    (double) size / sizes.get("JSON"), nanos[MEASURED_ROUNDS / 2] / 1_000_000.0);
+        }
+
+        assertTrue(sizes.get("CBOR") < sizes.get("JSON"));
+        assertTrue(sizes.get("Smile") < sizes.get("JSON"));
+    }
+
+    /**
+     * Helper method to create persons similar to an imported file.
+     *
+     * @return a list of persons with realistic field values
+     */
+    private List<Person> createPersons() {
+        String[] colors = {"blau", "grün", "violett", "rot", "gelb", "türkis", "weiß"};
+        List<Person> persons = new ArrayList<>(PERSONS);
+        for (int i = 0; i < PERSONS; i++) {
+            Person person = new Person();
+            person.setId(i + 1L);
+            person.setPersonId(i % 7 + 1);
+            person.setName("Name" + i);
+            person.setLastname("Nachname" + i);
+            person.setZipcode(String.valueOf(10_000 + i % 90_000));
+            person.setCity("Stadt" + i % 500);
+            person.setColor(colors[i % colors.length]);
+            persons.add(person);
+        }
+        return persons;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.personColorAPI.config;
+
+import com.example.personColorAPI.model.Person;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for {@link BinaryFormatConfiguration}.
+ * They verify that the read endpoints answer in the format requested with the Accept header and keep JSON as the default.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class BinaryFormatConfigurationTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    /**
+     * Tests that persons are returned as CBOR when CBOR is accepted.
+     */
+    @Test
+    void testGetAllPersons_asCbor() throws Exception {
+        assertPersonsReadableAs(MediaType.APPLICATION_CBOR, new CBORMapper());
+    }
+
+    /**
+     * Tests that persons are returned as Smile when Smile is accepted.
+     */
+    @Test
+    void testGetAllPersons_asSmile() throws Exception {
+        assertPersonsReadableAs(SMILE, new SmileMapper());
+    }
+
+    /**
+     * Tests that JSON stays the default for clients accepting any format.
+     */
+    @Test
+    void testGetAllPersons_defaultsToJson() throws Exception {
+        mockMvc.perform(get("/persons").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    private void assertPersonsReadableAs(MediaType mediaType, ObjectMapper mapper) throws Exception {
+        MvcResult result = mockMvc.perform(get("/persons").accept(mediaType))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(mediaType))
+                .andReturn();
+
+        Person[] persons = mapper.readValue(result.getResponse().getContentAsByteArray(), Person[].class);
+        assertTrue(persons.length > 0);
+        assertNotNull(persons[0].getName());
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.personColorAPI.config;
+
+import com.example.personColorAPI.model.PersonKey;
+import com.example.personColorAPI.monitoring.ImportBatchEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for {@link NativeImageHints}.
+ * This class tests that the types and resources used reflectively at runtime are registered for the native image.
+ */
+class NativeImageHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    /**
+     * Tests that Hibernate can create the natural key from a JPQL constructor expression.
+     */
+    @Test
+    void testRegisterHints_registersPersonKeyConstructor() {
+        new NativeImageHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection().onType(PersonKey.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+    }
+
+    /**
+     * Tests that the fields of the custom Flight Recorder events and the recording profile are available.
+     */
+    @Test
+    void testRegisterHints_registersFlightRecorderEventsAndProfile() {
+        new NativeImageHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection().onType(ImportBatchEvent.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("jfr/person-color-api.jfc").test(hints));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.personColorAPI.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link ReadWriteRoutingDataSource} with two embedded H2 databases as primary and replica.
+ * Each database contains a marker row naming it, so a query shows which database served a transaction.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    private TransactionTemplate readWriteTransaction;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = createDatabase("primary");
+        DataSource replica = createDatabase("replica");
+        routingDataSource = new ReadWriteRoutingDataSource(primary, replica);
+        routingDataSource.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(routingDataSource.getReplica()).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(routingDataSource.getResolvedDefaultDataSource()).execute("DROP ALL OBJECTS");
+    }
+
+    /**
+     * Tests that read-only transactions are served by the replica and other transactions by the primary.
+     */
+    @Test
+    void testRouting_byReadOnlyFlag() {
+        assertEquals("replica", readOnlyTransaction.execute(status -> currentDatabase()));
+        assertEquals("primary", readWriteTransaction.execute(status -> currentDatabase()));
+        assertEquals("primary", currentDatabase());
+    }
+
+    /**
+     * Tests that read-only transactions fall back to the primary while the replica is unavailable.
+     */
+    @Test
+    void testRouting_whenReplicaUnavailable_usesPrimary() {
+        routingDataSource.setReplicaAvailable(false);
+
+        assertEquals("primary", readOnlyTransaction.execute(status -> currentDatabase()));
+
+        routingDataSource.setReplicaAvailable(true);
+
+        assertEquals("replica", readOnlyTransaction.execute(status -> currentDatabase()));
+    }
+
+    /**
+     * Tests that a thread pinned to the primary reads from the primary even in read-only transactions.
+     */
+    @Test
+    void testRouting_whenPrimaryRequired_usesPrimary() {
+        String database = DataSourceRoutingContext.onPrimary(() -> readOnlyTransaction.execute(status -> currentDatabase()));
+
+        assertEquals("primary", database);
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("SELECT name FROM database_marker", String.class);
+    }
+
+    private static DataSource createDatabase(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS database_marker (name VARCHAR(20))");
+        jdbcTemplate.update("DELETE FROM database_marker");
+        jdbcTemplate.update("INSERT INTO database_marker (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.personColorAPI.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.time.OffsetDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link ReplicationLagMonitor} running the default lag query against an embedded H2 database.
+ * The PostgreSQL replication functions are replaced by aliases returning the state set by each test.
+ */
+class ReplicationLagMonitorTest {
+
+    private static volatile String receiveLsn;
+
+    private static volatile String replayLsn;
+
+    private static volatile OffsetDateTime replayTimestamp;
+
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    private ReplicationLagMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:lag-primary;DB_CLOSE_DELAY=-1");
+        DataSource replica = new DriverManagerDataSource("jdbc:h2:mem:lag-replica;DB_CLOSE_DELAY=-1");
+        JdbcTemplate replicaJdbcTemplate = new JdbcTemplate(replica);
+        String functions = ReplicationFunctions.class.getName();
+        replicaJdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS pg_last_wal_receive_lsn FOR \"" + functions + ".receiveLsn\"");
+        replicaJdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS pg_last_wal_replay_lsn FOR \"" + functions + ".replayLsn\"");
+        replicaJdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS pg_last_xact_replay_timestamp FOR \"" + functions + ".replayTimestamp\"");
+
+        routingDataSource = new ReadWriteRoutingDataSource(primary, replica);
+        routingDataSource.afterPropertiesSet();
+        monitor = new ReplicationLagMonitor(routingDataSource, new ReadReplicaConfig());
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(routingDataSource.getReplica()).execute("DROP ALL OBJECTS");
+    }
+
+    /**
+     * Tests that a replica that has replayed everything stays in use while the primary has been idle
+     * for longer than the maximum lag.
+     */
+    @Test
+    void testCheckReplicationLag_withIdlePrimary_keepsReplica() {
+        receiveLsn = "0/3000060";
+        replayLsn = "0/3000060";
+        replayTimestamp = OffsetDateTime.now().minusHours(1);
+        routingDataSource.setReplicaAvailable(false);
+
+        monitor.checkReplicationLag();
+
+        assertTrue(routingDataSource.isReplicaAvailable());
+    }
+
+    /**
+     * Tests that a replica that has not replayed the received WAL for longer than the maximum lag is not used.
+     */
+    @Test
+    void testCheckReplicationLag_withPendingReplay_usesPrimary() {
+        receiveLsn = "0/3000100";
+        replayLsn = "0/3000060";
+        replayTimestamp = OffsetDateTime.now().minusMinutes(1);
+
+        monitor.checkReplicationLag();
+
+        assertFalse(routingDataSource.isReplicaAvailable());
+    }
+
+    /**
+     * Stand-ins for the PostgreSQL replication functions, registered as H2 aliases.
+     */
+    public static final class ReplicationFunctions {
+
+        private ReplicationFunctions() {
+        }
+
+        /**
+         * Returns the last WAL location received by the replica.
+         *
+         * @return The location set by the test
+         */
+        public static String receiveLsn() {
+            return receiveLsn;
+        }
+
+        /**
+         * Returns the last WAL location replayed by the replica.
+         *
+         * @return The location set by the test
+         */
+        public static String replayLsn() {
+            return replayLsn;
+        }
+
+        /**
+         * Returns the commit time of the last replayed transaction.
+         *
+         * @return The time set by the test
+         */
+        public static OffsetDateTime replayTimestamp() {
+            return replayTimestamp;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.personColorAPI.controller;
+
+import com.example.personColorAPI.config.ConcurrencyLimitConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link AdaptiveConcurrencyLimiter}.
+ * This class tests the admission by endpoint group, the adaptation of the limit and the metrics.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private ConcurrencyLimitConfig config;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        config = new ConcurrencyLimitConfig();
+        config.setInitialLimit(10);
+        config.setMinLimit(2);
+        config.setMaxLimit(20);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    /**
+     * Tests that scans are shed while lookups are still admitted.
+     */
+    @Test
+    void testTryAcquire_shedsScansBeforeLookups() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config, meterRegistry);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire(EndpointGroup.SCAN));
+        }
+        assertFalse(limiter.tryAcquire(EndpointGroup.SCAN));
+
+        for (int i = 0; i < 7; i++) {
+            assertTrue(limiter.tryAcquire(EndpointGroup.LOOKUP));
+        }
+        assertFalse(limiter.tryAcquire(EndpointGroup.LOOKUP));
+        assertEquals(10, limiter.getInFlight());
+    }
+
+    /**
+     * Tests that requests far slower than the baseline latency of their group decrease the limit down to the minimum.
+     */
+    @Test
+    void testRelease_withSlowRequest_decreasesLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config, meterRegistry);
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire(EndpointGroup.LOOKUP);
+            limiter.release(EndpointGroup.LOOKUP, 10);
+        }
+        assertEquals(10, limiter.getLimit());
+
+        assertTrue(limiter.tryAcquire(EndpointGroup.LOOKUP));
+        limiter.release(EndpointGroup.LOOKUP, 1_000);
+        assertEquals(9, limiter.getLimit());
+
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire(EndpointGroup.LOOKUP);
+            limiter.release(EndpointGroup.LOOKUP, 1_000);
+        }
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    /**
+     * Tests that a steadily slow endpoint group does not decrease the limit, because its baseline is slow as well.
+     */
+    @Test
+    void testRelease_withSteadySlowLatency_keepsLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config, meterRegistry);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire(EndpointGroup.SCAN);
+            limiter.release(EndpointGroup.SCAN, 1_500 + i % 3 * 100);
+        }
+
+        assertEquals(10, limiter.getLimit());
+        assertEquals(1_500, limiter.getBaselineMillis(EndpointGroup.SCAN), 100);
+    }
+
+    /**
+     * Tests that a gradual rise of the latency is absorbed by the baseline, while a sudden rise decreases the limit.
+     */
+    @Test
+    void testRelease_withRisingLatency_decreasesLimitOnlyForSuddenRise() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config, meterRegistry);
+        limiter.tryAcquire(EndpointGroup.WRITE);
+        limiter.release(EndpointGroup.WRITE, 100);
+
+        for (int i = 0; i < 200; i++) {
+            limiter.tryAcquire(EndpointGroup.WRITE);
+            limiter.release(EndpointGroup.WRITE, 100 + i);
+        }
+        assertEquals(10, limiter.getLimit());
+
+        limiter.tryAcquire(EndpointGroup.WRITE);
+        limiter.release(EndpointGroup.WRITE, 2_000);
+        assertEquals(9, limiter.getLimit());
+    }
+
+    /**
+     * Tests that fast requests increase the limit only while at least half of it is in use.
+     */
+    @Test
+    void testRelease_withFastRequests_increasesLimitUnderLoad() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config, meterRegistry);
+
+        limiter.tryAcquire(EndpointGroup.LOOKUP);
+        limiter.release(EndpointGroup.LOOKUP, 1);
+        assertEquals(10, limiter.getLimit());
+
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire(EndpointGroup.LOOKUP);
+        }
+        limiter.release(EndpointGroup.LOOKUP, 1);
+        assertEquals(11, limiter.getLimit());
+    }
+
+    /**
+     * Tests that accepted and shed requests are counted per endpoint group.
+     */
+    @Test
+    void testMetrics_countAcceptedAndShedRequests() {
+        config.setInitialLimit(2);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config, meterRegistry);
+
+        limiter.tryAcquire(EndpointGroup.SCAN);
+        limiter.tryAcquire(EndpointGroup.SCAN);
+
+        assertEquals(1.0, meterRegistry.get(AdaptiveConcurrencyLimiter.REQUESTS_METRIC)
+                .tags("endpoint", "scan", "outcome", "accepted").counter().count());
+        assertEquals(1.0, meterRegistry.get(AdaptiveConcurrencyLimiter.REQUESTS_METRIC)
+                .tags("endpoint", "scan", "outcome", "shed").counter().count());
+        assertEquals(1.0, meterRegistry.get(AdaptiveConcurrencyLimiter.IN_FLIGHT_METRIC).gauge().value());
+        assertEquals(2.0, meterRegistry.get(AdaptiveConcurrencyLimiter.LIMIT_METRIC).gauge().value());
+    }
+}
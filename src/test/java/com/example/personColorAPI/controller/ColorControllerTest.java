@@ -0,0 +1,74 @@
+package com.example.personColorAPI.controller;
+
+import com.example.personColorAPI.model.ColorMappingUpdate;
+import com.example.personColorAPI.service.ColorMappingService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ColorController}.
+ * This class verifies the controller methods that interact with the {@link ColorMappingService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class ColorControllerTest {
+
+    @Mock
+    private ColorMappingService colorMappingService;
+
+    @InjectMocks
+    private ColorController colorController;
+
+    /**
+     * Test for {@link ColorController#getColors()}.
+     * Verifies if the controller returns the active color mapping.
+     */
+    @Test
+    public void testGetColors() {
+        when(colorMappingService.getColors()).thenReturn(Map.of(1, "blau"));
+
+        ResponseEntity<Map<Integer, String>> response = colorController.getColors();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("blau", response.getBody().get(1));
+    }
+
+    /**
+     * Test for {@link ColorController#updateColors(Map)}.
+     * Verifies if the controller returns the outcome of the update.
+     */
+    @Test
+    public void testUpdateColors() {
+        Map<Integer, String> colors = Map.of(1, "rot");
+        when(colorMappingService.updateColors(colors)).thenReturn(new ColorMappingUpdate(colors, Set.of(1), 3));
+
+        ResponseEntity<ColorMappingUpdate> response = colorController.updateColors(colors);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(3, response.getBody().updatedPersons());
+    }
+
+    /**
+     * Test for {@link ColorController#updateColors(Map)} with an invalid mapping.
+     * Verifies if the controller returns a BAD_REQUEST status.
+     */
+    @Test
+    public void testUpdateColors_BadRequest() {
+        Map<Integer, String> colors = Map.of(1, "rot");
+        when(colorMappingService.updateColors(colors)).thenThrow(new IllegalArgumentException("invalid"));
+
+        ResponseEntity<ColorMappingUpdate> response = colorController.updateColors(colors);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+}
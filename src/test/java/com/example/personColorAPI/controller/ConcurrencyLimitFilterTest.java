@@ -0,0 +1,107 @@
+package com.example.personColorAPI.controller;
+
+import com.example.personColorAPI.config.ConcurrencyLimitConfig;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link ConcurrencyLimitFilter} and {@link EndpointGroup}.
+ * This class tests the grouping of the endpoints and the fast rejection of shed requests.
+ */
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimitFilterTest {
+
+    @Mock
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private ConcurrencyLimitConfig config;
+
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        config = new ConcurrencyLimitConfig();
+        filter = new ConcurrencyLimitFilter(config, limiter);
+    }
+
+    /**
+     * Tests that the person endpoints are grouped by their cost and other endpoints are not limited.
+     */
+    @Test
+    void testEndpointGroup_of() {
+        assertEquals(EndpointGroup.SCAN, EndpointGroup.of("GET", "/persons"));
+        assertEquals(EndpointGroup.SCAN, EndpointGroup.of("GET", "/persons/color/blau"));
+        assertEquals(EndpointGroup.LOOKUP, EndpointGroup.of("GET", "/persons/42"));
+        assertEquals(EndpointGroup.LOOKUP, EndpointGroup.of("POST", "/persons/lookup"));
+        assertEquals(EndpointGroup.WRITE, EndpointGroup.of("POST", "/persons"));
+        assertNull(EndpointGroup.of("GET", "/persons/changes"));
+        assertNull(EndpointGroup.of("GET", "/colors"));
+        assertNull(EndpointGroup.of("GET", "/actuator/metrics"));
+    }
+
+    /**
+     * Tests that an admitted request is processed and released with its latency.
+     */
+    @Test
+    void testDoFilter_admittedRequest_isProcessedAndReleased() throws ServletException, IOException {
+        when(limiter.tryAcquire(EndpointGroup.LOOKUP)).thenReturn(true);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/persons/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        verify(limiter).release(eq(EndpointGroup.LOOKUP), anyLong());
+        assertEquals(200, response.getStatus());
+    }
+
+    /**
+     * Tests that a shed request is answered with 503 and Retry-After without being processed.
+     */
+    @Test
+    void testDoFilter_shedRequest_returnsServiceUnavailable() throws ServletException, IOException {
+        when(limiter.tryAcquire(EndpointGroup.SCAN)).thenReturn(false);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/persons");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, filterChain);
+
+        verifyNoInteractions(filterChain);
+        verify(limiter, never()).release(any(), anyLong());
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    /**
+     * Tests that no request is limited when the limit is disabled.
+     */
+    @Test
+    void testDoFilter_whenDisabled_passesThrough() throws ServletException, IOException {
+        config.setEnabled(false);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/persons");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        verifyNoInteractions(limiter);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.personColorAPI.controller;
+
+import com.example.personColorAPI.model.Person;
+import com.example.personColorAPI.service.CsvImporterService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.personColorAPI.monitoring.SqlStatementCountAssertions.assertMaxStatements;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Query-count regression tests for the {@link PersonController} endpoints and the CSV import.
+ * They run against an embedded H2 database and fail if an operation executes more SQL statements than expected.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class PersonControllerStatementCountTest {
+
+    private static final int IMPORTED_ROWS = 50;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CsvImporterService csvImporterService;
+
+    /**
+     * Fetching all persons must execute a single query.
+     */
+    @Test
+    void testGetAllPersons_statementCount() throws Exception {
+        assertMaxStatements(1, () -> mockMvc.perform(get("/persons")).andExpect(status().isOk()));
+    }
+
+    /**
+     * Fetching persons by ID must execute a single query.
+     */
+    @Test
+    void testGetPersonsById_statementCount() throws Exception {
+        assertMaxStatements(1, () -> mockMvc.perform(get("/persons/1")).andExpect(status().isOk()));
+    }
+
+    /**
+     * Fetching persons by color must execute a single query.
+     */
+    @Test
+    void testGetPersonsByColor_statementCount() throws Exception {
+        assertMaxStatements(1, () -> mockMvc.perform(get("/persons/color/blau")).andExpect(status().isOk()));
+    }
+
+    /**
+     * Fetching selected fields of persons by color must execute a single query and return only those fields.
+     */
+    @Test
+    void testGetPersonsByColorWithFields_statementCount() throws Exception {
+        assertMaxStatements(1, () -> mockMvc.perform(get("/persons/color/blau").param("fields", "personId,name,color"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").exists())
+                .andExpect(jsonPath("$[0].city").doesNotExist())
+                .andExpect(jsonPath("$[0].id").doesNotExist()));
+    }
+
+    /**
+     * Looking up persons by several personIds and colors must execute one query per key type.
+     */
+    @Test
+    void testLookupPersons_statementCount() throws Exception {
+        String body = """
+                {"personIds": [1, 2, 3, 4, 5], "colors": ["blau", "rot", "gelb"]}
+                """;
+        assertMaxStatements(2, () -> mockMvc.perform(post("/persons/lookup").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk()));
+    }
+
+    /**
+     * Creating a person must execute a single insert.
+     */
+    @Test
+    void testCreatePerson_statementCount() throws Exception {
+        String body = """
+                {"personId": 99, "name": "Count", "lastname": "Statements", "zipcode": "12345", "city": "Berlin", "color": "rot"}
+                """;
+        assertMaxStatements(1, () -> mockMvc.perform(post("/persons").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated()));
+    }
+
+    /**
+     * Importing N new rows must not execute more than one duplicate check and one insert per row.
+     */
+    @Test
+    void testImportPersons_statementCount() throws Exception {
+        List<Person> persons = new ArrayList<>();
+        for (int i = 0; i < IMPORTED_ROWS; i++) {
+            Person person = new Person();
+            person.setPersonId(1_000 + i);
+            person.setName("Import" + i);
+            person.setLastname("Statements");
+            person.setZipcode("54321");
+            person.setCity("Köln");
+            person.setColor("UNKNOWN");
+            persons.add(person);
+        }
+
+        assertMaxStatements(2L * IMPORTED_ROWS, () -> csvImporterService.importPersons(persons));
+    }
+}
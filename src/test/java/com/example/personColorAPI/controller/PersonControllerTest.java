@@ -1,6 +1,11 @@
 package com.example.personColorAPI.controller;
 
 import com.example.personColorAPI.model.Person;
+import com.example.personColorAPI.model.PersonLookupRequest;
+import com.example.personColorAPI.model.PersonLookupResult;
+import com.example.personColorAPI.service.IdempotencyKeyInProgressException;
+import com.example.personColorAPI.service.IdempotencyService;
+import com.example.personColorAPI.service.IdempotentResult;
 import com.example.personColorAPI.service.PersonService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,8 +17,13 @@ import org.springframework.http.ResponseEntity;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -26,6 +36,9 @@ class PersonControllerTest {
     @Mock
     private PersonService personService;
 
+    @Mock
+    private IdempotencyService idempotencyService;
+
     @InjectMocks
     private PersonController personController;
 
@@ -117,7 +130,35 @@ class PersonControllerTest {
     }
 
     /**
-     * Test for {@link PersonController#createPerson(Person)}.
+     * Test for {@link PersonController#getPersonsByColor(String, String)}.
+     * Verifies if the controller returns only the selected fields of the persons.
+     */
+    @Test
+    public void testGetPersonsByColor_WithFields() {
+        List<Map<String, Object>> rows = List.of(Map.of("personId", 1, "name", "Rand", "color", "blau"));
+        when(personService.getPersonsByColor("blau", "personId,name,color")).thenReturn(rows);
+
+        ResponseEntity<List<Map<String, Object>>> response = personController.getPersonsByColor("blau", "personId,name,color");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(rows, response.getBody());
+    }
+
+    /**
+     * Test for {@link PersonController#getPersonsById(int, String)} with an unknown field.
+     * Verifies if the controller returns a BAD_REQUEST status.
+     */
+    @Test
+    public void testGetPersonsById_WithUnknownField_BadRequest() {
+        when(personService.getPersonsById(1, "password")).thenThrow(new IllegalArgumentException("Unknown field"));
+
+        ResponseEntity<List<Map<String, Object>>> response = personController.getPersonsById(1, "password");
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    /**
+     * Test for {@link PersonController#createPerson(String, Person)}.
      * Verifies if the controller correctly creates a new person.
      */
     @Test
@@ -128,12 +169,80 @@ class PersonControllerTest {
 
         when(personService.addPerson(person)).thenReturn(person);
 
-        ResponseEntity<Person> response = personController.createPerson(person);
+        ResponseEntity<Person> response = personController.createPerson(null, person);
 
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertNotNull(response.getBody());
     }
 
+    /**
+     * Test for {@link PersonController#createPerson(String, Person)} with a repeated Idempotency-Key.
+     * Verifies if the controller returns the original person and marks the response as replayed.
+     */
+    @Test
+    public void testCreatePerson_IdempotentReplay() {
+        Person person = new Person();
+        person.setName("John");
+        person.setLastname("Doe");
+
+        when(idempotencyService.createOnce(eq("retry-1"), eq(person), any())).thenReturn(new IdempotentResult(person, true));
+
+        ResponseEntity<Person> response = personController.createPerson("retry-1", person);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals("true", response.getHeaders().getFirst(PersonController.IDEMPOTENT_REPLAYED_HEADER));
+        assertEquals(person, response.getBody());
+        verify(personService, never()).addPerson(any());
+    }
+
+    /**
+     * Test for {@link PersonController#createPerson(String, Person)} with an Idempotency-Key reserved on another node.
+     * Verifies if the controller returns a CONFLICT status while the other request is still running.
+     */
+    @Test
+    public void testCreatePerson_IdempotencyKeyInProgress() {
+        Person person = new Person();
+        person.setName("John");
+        person.setLastname("Doe");
+
+        when(idempotencyService.createOnce(eq("retry-1"), eq(person), any()))
+                .thenThrow(new IdempotencyKeyInProgressException("retry-1"));
+
+        ResponseEntity<Person> response = personController.createPerson("retry-1", person);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+
+    /**
+     * Test for {@link PersonController#lookupPersons(PersonLookupRequest)}.
+     * Verifies if the controller returns the persons grouped by the requested keys.
+     */
+    @Test
+    public void testLookupPersons() {
+        PersonLookupRequest request = new PersonLookupRequest(List.of(1), List.of());
+        PersonLookupResult result = new PersonLookupResult(Map.of(1, createPersons()), Map.of());
+        when(personService.lookupPersons(request)).thenReturn(result);
+
+        ResponseEntity<PersonLookupResult> response = personController.lookupPersons(request);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(result, response.getBody());
+    }
+
+    /**
+     * Test for {@link PersonController#lookupPersons(PersonLookupRequest)} with invalid keys.
+     * Verifies if the controller returns a BAD_REQUEST status when the service rejects the keys.
+     */
+    @Test
+    public void testLookupPersons_BadRequest() {
+        PersonLookupRequest request = new PersonLookupRequest(null, null);
+        when(personService.lookupPersons(request)).thenThrow(new IllegalArgumentException("invalid"));
+
+        ResponseEntity<PersonLookupResult> response = personController.lookupPersons(request);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
     /**
      * Helper method to create a list of mock persons.
      *
@@ -0,0 +1,137 @@
+package com.example.personColorAPI.monitoring;
+
+import com.example.personColorAPI.config.ColorConfig;
+import com.example.personColorAPI.config.FileConfig;
+import com.example.personColorAPI.config.MonitoringConfig;
+import com.example.personColorAPI.repository.PersonRepository;
+import com.example.personColorAPI.service.CsvFileReaderService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the custom Java Flight Recorder events and the settings profile shipped with the application.
+ * The events are recorded into a real recording, which is then read back.
+ */
+@ExtendWith(MockitoExtension.class)
+class FlightRecorderEventsTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Mock
+    private ObjectProvider<MonitoringConfig> monitoringConfig;
+
+    @Mock
+    private MethodInvocation invocation;
+
+    /**
+     * Tests that reading a CSV file emits one parse chunk event per chunk of rows with the bytes read.
+     */
+    @Test
+    void testReadCsvFile_emitsParseChunkEvents() throws Exception {
+        Path csv = tempDir.resolve("persons.csv");
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 25_000; i++) {
+            content.append("Müller, Hans").append(i).append(", 67742 Lauterecken, 1\n");
+        }
+        Files.writeString(csv, content, StandardCharsets.UTF_8);
+        FileConfig fileConfig = new FileConfig();
+        ColorConfig colorConfig = new ColorConfig();
+        colorConfig.setColors(Map.of(1, "blau"));
+        CsvFileReaderService csvFileReaderService = new CsvFileReaderService(fileConfig, colorConfig);
+
+        List<RecordedEvent> events = record(ParseChunkEvent.NAME, () -> csvFileReaderService.readCsvFile(csv));
+
+        assertEquals(List.of(10_000, 10_000, 5_000), events.stream().map(event -> event.getInt("rows")).toList());
+        assertTrue(events.stream().allMatch(event -> csv.toString().equals(event.getString("file"))));
+        assertEquals(Files.size(csv), events.stream().mapToLong(event -> event.getLong("bytes")).sum());
+    }
+
+    /**
+     * Tests that a repository call emits an event with the method name and the number of returned rows.
+     */
+    @Test
+    void testRepositoryCall_emitsRepositoryQueryEvent() throws Throwable {
+        when(monitoringConfig.getObject()).thenReturn(new MonitoringConfig());
+        when(invocation.getMethod()).thenReturn(PersonRepository.class.getMethod("findByColor", String.class));
+        when(invocation.proceed()).thenReturn(List.of(new Object(), new Object()));
+        RepositoryCallMonitor monitor = new RepositoryCallMonitor(PersonRepository.class, monitoringConfig);
+
+        List<RecordedEvent> events = record(RepositoryQueryEvent.NAME, () -> monitor.invoke(invocation));
+
+        assertEquals(1, events.size());
+        assertEquals("PersonRepository", events.get(0).getString("repository"));
+        assertEquals("findByColor", events.get(0).getString("method"));
+        assertEquals(2, events.get(0).getInt("rows"));
+    }
+
+    /**
+     * Tests the number of rows reported for the different result types of repository methods.
+     */
+    @Test
+    void testRowCount() {
+        assertEquals(0, RepositoryCallMonitor.rowCount(null));
+        assertEquals(3, RepositoryCallMonitor.rowCount(List.of(1, 2, 3)));
+        assertEquals(1, RepositoryCallMonitor.rowCount(Optional.of("person")));
+        assertEquals(0, RepositoryCallMonitor.rowCount(Optional.empty()));
+        assertEquals(-1, RepositoryCallMonitor.rowCount(42L));
+        assertEquals(-1, RepositoryCallMonitor.rowCount(true));
+    }
+
+    /**
+     * Tests that the shipped settings profile enables the custom events on top of the JDK default profile.
+     */
+    @Test
+    void testLoadSettings_enablesCustomEvents() throws Exception {
+        Map<String, String> settings = ContinuousFlightRecording.loadSettings("jfr/person-color-api.jfc");
+
+        assertEquals("true", settings.get(ParseChunkEvent.NAME + "#enabled"));
+        assertEquals("true", settings.get(ImportBatchEvent.NAME + "#enabled"));
+        assertEquals("10 ms", settings.get(RepositoryQueryEvent.NAME + "#threshold"));
+        assertEquals("true", settings.get(HttpRequestEvent.NAME + "#enabled"));
+        assertEquals("true", settings.get("jdk.GarbageCollection#enabled"));
+    }
+
+    /**
+     * Runs the action while a recording with the given event enabled is active and returns the recorded events.
+     */
+    private List<RecordedEvent> record(String eventName, ThrowingAction action) throws Throwable {
+        Path file = tempDir.resolve("events.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(eventName).withoutThreshold();
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(eventName))
+                .toList();
+    }
+
+    /**
+     * An action that may throw any exception.
+     */
+    @FunctionalInterface
+    private interface ThrowingAction {
+        void run() throws Throwable;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.personColorAPI.monitoring;
+
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Assertions on the number of SQL statements an operation executes on the current thread.
+ * They turn query-count regressions, such as a new N+1 pattern, into failing tests.
+ */
+public final class SqlStatementCountAssertions {
+
+    private SqlStatementCountAssertions() {
+    }
+
+    /**
+     * Runs the given action and asserts that it executed at most the given number of SQL statements.
+     *
+     * @param maxStatements The maximum number of SQL statements the action may execute
+     * @param action        The action to measure
+     * @param <T>           The result type of the action
+     * @return The result of the action
+     * @throws Exception If the action fails
+     */
+    public static <T> T assertMaxStatements(long maxStatements, Callable<T> action) throws Exception {
+        long statementsBefore = SqlStatementCounter.currentCount();
+        T result = action.call();
+        long statements = SqlStatementCounter.currentCount() - statementsBefore;
+        assertTrue(statements <= maxStatements,
+                () -> "Expected at most " + maxStatements + " SQL statements, but " + statements + " were executed.");
+        return result;
+    }
+}
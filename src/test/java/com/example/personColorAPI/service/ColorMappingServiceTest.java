@@ -0,0 +1,114 @@
+package com.example.personColorAPI.service;
+
+import com.example.personColorAPI.config.ColorConfig;
+import com.example.personColorAPI.model.ColorMappingUpdate;
+import com.example.personColorAPI.repository.PersonRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link ColorMappingService}.
+ * This class tests replacing the color mapping and recoloring only the affected persons while imports are paused.
+ */
+@ExtendWith(MockitoExtension.class)
+class ColorMappingServiceTest {
+
+    @Mock
+    private PersonRepository personRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ImportGovernor importGovernor;
+
+    private ColorConfig colorConfig;
+
+    private ColorMappingService colorMappingService;
+
+    @BeforeEach
+    void setUp() {
+        colorConfig = new ColorConfig();
+        colorConfig.setColors(Map.of(1, "blau", 2, "grün", 3, "rot"));
+        colorMappingService = new ColorMappingService(colorConfig, personRepository, transactionTemplate, eventPublisher,
+                importGovernor);
+        lenient().when(importGovernor.runExclusively(any())).thenAnswer(invocation ->
+                invocation.<Supplier<?>>getArgument(0).get());
+    }
+
+    /**
+     * Tests that only changed personIds are recolored, grouped by their new color, and that
+     * removed personIds get the unknown color.
+     */
+    @Test
+    void testUpdateColors_recolorsChangedPersonIds() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+        when(personRepository.updateColorByPersonIdIn(eq("gelb"), anyCollection())).thenReturn(4);
+        when(personRepository.updateColorByPersonIdIn(eq(ColorConfig.UNKNOWN_COLOR), anyCollection())).thenReturn(1);
+
+        ColorMappingUpdate update = colorMappingService.updateColors(Map.of(1, "blau", 2, "gelb", 4, "gelb"));
+
+        verify(personRepository).updateColorByPersonIdIn("gelb", List.of(2, 4));
+        verify(personRepository).updateColorByPersonIdIn(ColorConfig.UNKNOWN_COLOR, List.of(3));
+        verifyNoMoreInteractions(personRepository);
+        assertEquals(Set.of(2, 3, 4), update.changedPersonIds());
+        assertEquals(5, update.updatedPersons());
+        assertEquals("gelb", colorConfig.getColors().get(2));
+        verify(eventPublisher).publishEvent(new ColorMappingChangedEvent(Set.of(2, 3, 4), Map.of(1, "blau", 2, "gelb", 4, "gelb")));
+        verify(importGovernor).runExclusively(any());
+    }
+
+    /**
+     * Tests that an unchanged mapping does not touch the database.
+     */
+    @Test
+    void testUpdateColors_withoutChanges() {
+        ColorMappingUpdate update = colorMappingService.updateColors(Map.of(1, "blau", 2, "grün", 3, "rot"));
+
+        assertEquals(0, update.updatedPersons());
+        verifyNoInteractions(personRepository, transactionTemplate, eventPublisher);
+    }
+
+    /**
+     * Tests that the previous mapping is restored if the recoloring fails.
+     */
+    @Test
+    void testUpdateColors_whenRecoloringFails_restoresPreviousMapping() {
+        when(transactionTemplate.execute(any())).thenThrow(new RuntimeException("Database error"));
+
+        assertThrows(RuntimeException.class, () -> colorMappingService.updateColors(Map.of(1, "rot")));
+
+        assertEquals("blau", colorConfig.getColors().get(1));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    /**
+     * Tests that a mapping with an empty color is rejected.
+     */
+    @Test
+    void testUpdateColors_withNullColor_isRejected() {
+        Map<Integer, String> colors = new HashMap<>();
+        colors.put(1, null);
+
+        assertThrows(IllegalArgumentException.class, () -> colorMappingService.updateColors(colors));
+    }
+}
@@ -3,18 +3,25 @@ package com.example.personColorAPI.service;
 import com.example.personColorAPI.config.ColorConfig;
 import com.example.personColorAPI.config.FileConfig;
 import com.example.personColorAPI.model.Person;
+import com.github.luben.zstd.ZstdOutputStream;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedConstruction;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mockConstruction;
@@ -27,13 +34,13 @@ import static org.mockito.Mockito.when;
 @ExtendWith(MockitoExtension.class)
 class CsvFileReaderServiceTest {
 
-    public static final String FILE_PATH = "fake";
     public static final String RUN_TIME_EXCEPTION_MESSAGE = "Error processing the CSV file";
     public static final String IO_EXCEPTION_MESSAGE = "IOException";
     public static final String VALID_CSV_ROW = "Song,Juy,12345 leipzig,1";
     public static final String CSV_ROW_WITHOUT_leipzig = "Martin,Samos,67890 ,12345";
     public static final String CSV_ROW_WITHOUT_leipzig_AND_ZIP_CODE = "Martin,Samos, ,12345";
     public static final String INVALID_CSV_ROW = "Invalid,Row,Without,ProperData";
+    public static final String SAME_CITY_CSV_ROW = "Kong,Lee,12345 leipzig,2";
 
     @Mock
     private FileConfig fileConfig;
@@ -44,16 +51,28 @@ class CsvFileReaderServiceTest {
     @InjectMocks
     private CsvFileReaderService csvFileReaderService;
 
+    @TempDir
+    private Path tempDir;
+
+    private String filePath;
+
+    /**
+     * Creates an empty input file. The rows are supplied by the mocked {@link BufferedReader}.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        filePath = Files.createFile(tempDir.resolve("input.csv")).toString();
+    }
+
     /**
      * Tests reading a CSV file with valid rows, missing data, and invalid data.
      * Verifies that the data is correctly processed into Person objects.
      */
     @Test
     void testReadCsvFile_withMultipleScenarios_success() throws IOException {
-        when(fileConfig.getFilePath()).thenReturn(FILE_PATH);
+        when(fileConfig.getFilePath()).thenReturn(filePath);
 
-        try (MockedConstruction<FileReader> mockedFileReader = mockConstruction(FileReader.class);
-             MockedConstruction<BufferedReader> mockedBufferedReader = mockConstruction(BufferedReader.class,
+        try (MockedConstruction<BufferedReader> mockedBufferedReader = mockConstruction(BufferedReader.class,
                      (mock, context) -> {
                          when(mock.readLine()).thenReturn(VALID_CSV_ROW)
                                  .thenReturn(CSV_ROW_WITHOUT_leipzig)
@@ -71,16 +90,42 @@ class CsvFileReaderServiceTest {
         }
     }
 
+    /**
+     * Tests that a row repeating the natural key of an earlier row is skipped and that
+     * repeated cities and zipcodes share a single String instance.
+     */
+    @Test
+    void testReadCsvFile_withDuplicateRows_deduplicates() throws IOException {
+        when(fileConfig.getFilePath()).thenReturn(filePath);
+        when(fileConfig.getInternCapacity()).thenReturn(100);
+
+        try (MockedConstruction<BufferedReader> mockedBufferedReader = mockConstruction(BufferedReader.class,
+                     (mock, context) -> {
+                         when(mock.readLine()).thenReturn(VALID_CSV_ROW)
+                                 .thenReturn(VALID_CSV_ROW)
+                                 .thenReturn(SAME_CITY_CSV_ROW)
+                                 .thenReturn(null);
+                     })) {
+
+            when(colorConfig.getColors()).thenReturn(Map.of(1, "red", 2, "blue"));
+
+            List<Person> persons = csvFileReaderService.readCsvFile();
+
+            assertEquals(2, persons.size());
+            assertSame(persons.get(0).getCity(), persons.get(1).getCity());
+            assertSame(persons.get(0).getZipcode(), persons.get(1).getZipcode());
+        }
+    }
+
     /**
      * Tests if the method handles the case when the color map is null.
      * Verifies that the system doesn't crash if color data is unavailable.
      */
     @Test
     void testReadCsvFile_whenColorsMapIsNull_thenHandleGracefully() throws IOException {
-        when(fileConfig.getFilePath()).thenReturn(FILE_PATH);
+        when(fileConfig.getFilePath()).thenReturn(filePath);
 
-        try (MockedConstruction<FileReader> mockedFileReader = mockConstruction(FileReader.class);
-             MockedConstruction<BufferedReader> mockedBufferedReader = mockConstruction(BufferedReader.class,
+        try (MockedConstruction<BufferedReader> mockedBufferedReader = mockConstruction(BufferedReader.class,
                      (mock, context) -> {
                          when(mock.readLine()).thenReturn(VALID_CSV_ROW)
                                  .thenReturn(null);
@@ -100,10 +145,9 @@ class CsvFileReaderServiceTest {
      */
     @Test
     void testReadCsvFile_withIOException() {
-        when(fileConfig.getFilePath()).thenReturn(FILE_PATH);
+        when(fileConfig.getFilePath()).thenReturn(filePath);
 
-        try (MockedConstruction<FileReader> mockedFileReader = mockConstruction(FileReader.class);
-             MockedConstruction<BufferedReader> mockedBufferedReader = mockConstruction(BufferedReader.class,
+        try (MockedConstruction<BufferedReader> mockedBufferedReader = mockConstruction(BufferedReader.class,
                      (mock, context) -> {
                          when(mock.readLine()).thenThrow(new IOException(IO_EXCEPTION_MESSAGE));
                      })) {
@@ -121,10 +165,9 @@ class CsvFileReaderServiceTest {
      */
     @Test
     void testReadCsvFile_withRuntimeException() {
-        when(fileConfig.getFilePath()).thenReturn(FILE_PATH);
+        when(fileConfig.getFilePath()).thenReturn(filePath);
 
-        try (MockedConstruction<FileReader> mockedFileReader = mockConstruction(FileReader.class);
-             MockedConstruction<BufferedReader> mockedBufferedReader = mockConstruction(BufferedReader.class,
+        try (MockedConstruction<BufferedReader> mockedBufferedReader = mockConstruction(BufferedReader.class,
                      (mock, context) -> {
                          when(mock.readLine()).thenThrow(new RuntimeException(RUN_TIME_EXCEPTION_MESSAGE));
                      })) {
@@ -136,4 +179,68 @@ class CsvFileReaderServiceTest {
             assertEquals(RUN_TIME_EXCEPTION_MESSAGE, runtimeException.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that a gzip compressed file is detected and decoded while reading.
+     */
+    @Test
+    void testReadCsvFile_withGzipCompressedFile() throws IOException {
+        Path gzipFile = tempDir.resolve("input.csv.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzipFile))) {
+            out.write((VALID_CSV_ROW + "\n" + SAME_CITY_CSV_ROW + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        when(colorConfig.getColors()).thenReturn(Map.of(1, "red"));
+
+        List<Person> persons = csvFileReaderService.readCsvFile(gzipFile);
+
+        assertEquals(2, persons.size());
+        assertEquals("leipzig", persons.get(0).getCity());
+    }
+
+    /**
+     * Tests that a zstd compressed file is detected and decoded while reading.
+     */
+    @Test
+    void testReadCsvFile_withZstdCompressedFile() throws IOException {
+        Path zstdFile = tempDir.resolve("input.csv.zst");
+        try (OutputStream out = new ZstdOutputStream(Files.newOutputStream(zstdFile))) {
+            out.write((VALID_CSV_ROW + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        when(colorConfig.getColors()).thenReturn(Map.of(1, "red"));
+
+        List<Person> persons = csvFileReaderService.readCsvFile(zstdFile);
+
+        assertEquals(1, persons.size());
+        assertEquals("red", persons.get(0).getColor());
+    }
+
+    /**
+     * Tests that invalid rows are written to the rejects file with their line number and reason.
+     */
+    @Test
+    void testReadCsvFile_withInvalidRows_writesRejectsFile() throws IOException {
+        Path input = tempDir.resolve("rejects-input.csv");
+        Files.writeString(input, VALID_CSV_ROW + "\n\nToo,Few\n" + INVALID_CSV_ROW + "\n", StandardCharsets.UTF_8);
+        Path rejectsDirectory = tempDir.resolve("rejects");
+        when(fileConfig.getRejectsDirectory()).thenReturn(rejectsDirectory.toString());
+        when(colorConfig.getColors()).thenReturn(Map.of(1, "red"));
+
+        List<Person> persons = csvFileReaderService.readCsvFile(input);
+
+        assertEquals(1, persons.size());
+        List<String> rejects = Files.readAllLines(rejectsDirectory.resolve("rejects-input.csv.rejects.csv"));
+        assertEquals(List.of("3,WRONG_FIELD_COUNT,Too,Few", "4,INVALID_PERSON_ID," + INVALID_CSV_ROW), rejects);
+    }
+
+    /**
+     * Tests parsing of valid and invalid personId fields without exceptions.
+     */
+    @Test
+    void testParsePersonId() {
+        assertEquals(12345, CsvFileReaderService.parsePersonId(" 12345 "));
+        assertEquals(-7, CsvFileReaderService.parsePersonId("-7"));
+        assertEquals(CsvFileReaderService.INVALID_PERSON_ID, CsvFileReaderService.parsePersonId("ProperData"));
+        assertEquals(CsvFileReaderService.INVALID_PERSON_ID, CsvFileReaderService.parsePersonId(""));
+        assertEquals(CsvFileReaderService.INVALID_PERSON_ID, CsvFileReaderService.parsePersonId("2147483648"));
+    }
+}
@@ -1,18 +1,33 @@
 package com.example.personColorAPI.service;
 
+import com.example.personColorAPI.config.ColorConfig;
+import com.example.personColorAPI.config.ImportConfig;
 import com.example.personColorAPI.model.Person;
+import com.example.personColorAPI.model.PersonKey;
 import com.example.personColorAPI.repository.PersonRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 /**
@@ -25,9 +40,61 @@ class CsvImporterServiceTest {
     @Mock
     private PersonRepository personRepository;
 
+    @Spy
+    private ImportConfig importConfig = new ImportConfig();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ImportGovernor importGovernor;
+
+    @Spy
+    private ColorConfig colorConfig = new ColorConfig();
+
     @InjectMocks
     private CsvImporterService csvImporterService;
 
+    /**
+     * Test for importing a snapshot into an empty table.
+     * Verifies that the persons are saved in batches without per-row duplicate checks.
+     */
+    @Test
+    public void testImportSnapshot_SavesInBatchesWithoutDuplicateChecks() {
+        ImportConfig smallBatches = new ImportConfig();
+        smallBatches.setBatchSize(2);
+        CsvImporterService batchingImporter = new CsvImporterService(personRepository, smallBatches, eventPublisher, importGovernor, colorConfig);
+        List<Person> persons = List.of(createPerson("John", 1), createPerson("Jane", 2), createPerson("Jim", 3));
+        when(personRepository.existsByIdIsNotNull()).thenReturn(false);
+        when(personRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ImportResult result = batchingImporter.importSnapshot(persons);
+
+        assertEquals(3, result.imported());
+        verify(personRepository).saveAll(persons.subList(0, 2));
+        verify(personRepository).saveAll(persons.subList(2, 3));
+        verify(personRepository, never()).findExistingKeys(anyCollection());
+        verify(personRepository, never()).count();
+    }
+
+    /**
+     * Test for importing a snapshot into a table that already holds persons, e.g. after an interrupted restore.
+     * Verifies that persons already stored are skipped.
+     */
+    @Test
+    public void testImportSnapshot_IntoFilledTable_SkipsStoredPersons() {
+        Person stored = createPerson("John", 1);
+        Person missing = createPerson("Jane", 2);
+        when(personRepository.existsByIdIsNotNull()).thenReturn(true);
+        when(personRepository.findExistingKeys(anyCollection())).thenReturn(Set.of(PersonKey.of(stored)));
+        when(personRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ImportResult result = csvImporterService.importSnapshot(List.of(stored, missing));
+
+        assertEquals(new ImportResult(1, 1), result);
+        verify(personRepository).saveAll(List.of(missing));
+    }
+
     /**
      * Test for importing persons when the list is valid and no duplicates exist.
      * Verifies that the persons are successfully saved to the repository.
@@ -36,14 +103,12 @@ class CsvImporterServiceTest {
     public void testImportPersons_Success() {
         List<Person> persons = createPersons();
 
-        when(personRepository.existsByNameAndLastnameAndZipcodeAndPersonId(anyString(), anyString(), anyString(), anyInt()))
-                .thenReturn(false);
-
         when(personRepository.saveAll(anyList())).thenReturn(persons);
 
         csvImporterService.importPersons(persons);
 
         verify(personRepository, times(1)).saveAll(eq(persons));
+        verify(eventPublisher).publishEvent(new PersonsCreatedEvent(persons));
     }
 
     /**
@@ -56,17 +121,83 @@ class CsvImporterServiceTest {
         Person person2 = createPerson("John", 1);  // Both persons are duplicates
         List<Person> persons = List.of(person1, person2);
 
-        when(personRepository.existsByNameAndLastnameAndZipcodeAndPersonId(person1.getName(), person1.getLastname(), person1.getZipcode(), person1.getPersonId()))
-                .thenReturn(true);
-
-        when(personRepository.existsByNameAndLastnameAndZipcodeAndPersonId(person2.getName(), person2.getLastname(), person2.getZipcode(), person2.getPersonId()))
-                .thenReturn(true);
+        when(personRepository.findExistingKeys(anyCollection())).thenReturn(Set.of(PersonKey.of(person1)));
 
         csvImporterService.importPersons(persons);
 
         verify(personRepository, times(0)).saveAll(anyList());
     }
 
+    /**
+     * Test for importing persons when the same person occurs twice in the input.
+     * Verifies that the person is saved only once.
+     */
+    @Test
+    public void testImportPersons_DuplicateWithinInput() {
+        Person person1 = createPerson("John", 1);
+        Person person2 = createPerson("John", 1);
+
+        csvImporterService.importPersons(List.of(person1, person2));
+
+        verify(personRepository, times(1)).saveAll(eq(List.of(person1)));
+    }
+
+    /**
+     * Test for importing more persons than fit into one batch.
+     * Verifies that the persons are looked up and saved with one query and one saveAll call per batch,
+     * each holding a permit of the governor.
+     */
+    @Test
+    public void testImportPersons_InBatches() {
+        ImportConfig smallBatches = new ImportConfig();
+        smallBatches.setBatchSize(1);
+        CsvImporterService batchingImporter = new CsvImporterService(personRepository, smallBatches, eventPublisher, importGovernor, colorConfig);
+        List<Person> persons = createPersons();
+
+        ImportResult result = batchingImporter.importPersons(persons);
+
+        verify(personRepository, times(2)).findExistingKeys(anyCollection());
+        verify(personRepository, times(2)).saveAll(anyList());
+        verify(importGovernor, times(2)).acquire(0);
+        verify(importGovernor, times(2)).acquire(1);
+        verify(importGovernor, times(4)).release();
+        assertEquals(2, result.imported());
+    }
+
+    /**
+     * Test for importing persons whose duplicate lookup has to wait for the governor.
+     * Verifies that the lookup runs only while a permit is held and that the permit is released afterwards.
+     */
+    @Test
+    public void testImportPersons_LooksUpDuplicatesUnderPermit() {
+        List<Person> persons = createPersons();
+        InOrder inOrder = inOrder(importGovernor, personRepository);
+
+        csvImporterService.importPersons(persons);
+
+        inOrder.verify(importGovernor).acquire(0);
+        inOrder.verify(personRepository).findExistingKeys(List.of(PersonKey.of(persons.get(0)), PersonKey.of(persons.get(1))));
+        inOrder.verify(importGovernor).release();
+        inOrder.verify(importGovernor).acquire(2);
+        inOrder.verify(personRepository).saveAll(persons);
+        inOrder.verify(importGovernor).release();
+    }
+
+    /**
+     * Test for importing persons after the color mapping was replaced while they were read.
+     * Verifies that the persons are saved with the colors of the active mapping.
+     */
+    @Test
+    public void testImportPersons_AppliesActiveColorMapping() {
+        colorConfig.setColors(Map.of(1, "gelb"));
+        List<Person> persons = createPersons();
+
+        csvImporterService.importPersons(persons);
+
+        assertEquals("gelb", persons.get(0).getColor());
+        assertEquals(ColorConfig.UNKNOWN_COLOR, persons.get(1).getColor());
+    }
+
     /**
      * Test for importing persons when the input list is empty.
      * Verifies that no save operation is performed when the list is empty.
@@ -89,8 +220,6 @@ class CsvImporterServiceTest {
         List<Person> persons = createPersons();
         String expectedErrorMessage = "Error importing people into the database.";
 
-        when(personRepository.existsByNameAndLastnameAndZipcodeAndPersonId(anyString(), anyString(), anyString(), anyInt()))
-                .thenReturn(false);
         when(personRepository.saveAll(anyList())).thenThrow(new RuntimeException("Database error"));
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -102,6 +231,88 @@ class CsvImporterServiceTest {
         assertEquals(expectedErrorMessage, exception.getMessage());
     }
 
+    /**
+     * Test for an import whose second batch fails.
+     * Verifies that the committed batch is reported and that only its keys stay claimed for parallel imports.
+     */
+    @Test
+    public void testImportPersons_FailedBatch_ReleasesUncommittedKeys() {
+        ImportConfig smallBatches = new ImportConfig();
+        smallBatches.setBatchSize(1);
+        CsvImporterService batchingImporter = new CsvImporterService(personRepository, smallBatches, eventPublisher, importGovernor, colorConfig);
+        List<Person> persons = createPersons();
+        PersonKeyClaims claims = new PersonKeyClaims();
+
+        when(personRepository.saveAll(anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(0))
+                .thenThrow(new RuntimeException("Database error"));
+
+        ImportFailedException exception = assertThrows(ImportFailedException.class,
+                () -> batchingImporter.importPersons(persons, claims));
+
+        assertEquals(1, exception.getCommittedBatches());
+        assertEquals(2, exception.getTotalBatches());
+        assertEquals(1, exception.getCommitted().imported());
+        assertTrue(claims.isClaimed(PersonKey.of(persons.get(0))));
+        assertTrue(claims.outcome(PersonKey.of(persons.get(0))).join());
+        assertFalse(claims.isClaimed(PersonKey.of(persons.get(1))));
+    }
+
+    /**
+     * Test for a person whose key was claimed and committed by a parallel import.
+     * Verifies that the person is counted as a duplicate and not saved again.
+     */
+    @Test
+    public void testImportPersons_KeyCommittedByParallelImport_IsDuplicate() {
+        Person person = createPerson("John", 1);
+        PersonKeyClaims claims = new PersonKeyClaims();
+        claims.tryClaim(PersonKey.of(person));
+        claims.commit(List.of(PersonKey.of(person)));
+
+        ImportResult result = csvImporterService.importPersons(List.of(person), claims);
+
+        assertEquals(new ImportResult(0, 1), result);
+        verify(personRepository, never()).saveAll(anyList());
+    }
+
+    /**
+     * Test for two files imported in parallel that contain the same person, where the batch of the first file fails.
+     * Verifies that the second file waits for the outcome of the first file's batch and imports the person itself.
+     */
+    @Test
+    public void testImportPersons_ParallelFileBatchFails_ImportsClaimedPersonAgain() throws Exception {
+        PersonKeyClaims claims = new PersonKeyClaims();
+        Person inFirstFile = createPerson("John", 1);
+        Person inSecondFile = createPerson("John", 1);
+        Person onlyInSecondFile = createPerson("Jane", 2);
+        CountDownLatch firstFileSaving = new CountDownLatch(1);
+        CountDownLatch secondFileSaved = new CountDownLatch(1);
+        when(personRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Person> batch = invocation.getArgument(0);
+            if (batch.contains(onlyInSecondFile)) {
+                secondFileSaved.countDown();
+            } else if (batch.contains(inFirstFile) && firstFileSaving.getCount() > 0) {
+                firstFileSaving.countDown();
+                secondFileSaved.await(5, TimeUnit.SECONDS);
+                throw new RuntimeException("Database error");
+            }
+            return batch;
+        });
+
+        CompletableFuture<ImportResult> firstFile = CompletableFuture.supplyAsync(
+                () -> csvImporterService.importPersons(List.of(inFirstFile), claims));
+        assertTrue(firstFileSaving.await(5, TimeUnit.SECONDS));
+        ImportResult secondFile = csvImporterService.importPersons(List.of(inSecondFile, onlyInSecondFile), claims);
+
+        ExecutionException exception = assertThrows(ExecutionException.class, firstFile::get);
+        assertInstanceOf(ImportFailedException.class, exception.getCause());
+        assertEquals(new ImportResult(2, 0), secondFile);
+        verify(personRepository).saveAll(List.of(onlyInSecondFile));
+        verify(personRepository).saveAll(List.of(inFirstFile));
+        verify(personRepository).saveAll(List.of(inSecondFile));
+        assertTrue(claims.outcome(PersonKey.of(inSecondFile)).join());
+    }
+
     /**
      * Helper method to create a list of mock persons.
      *
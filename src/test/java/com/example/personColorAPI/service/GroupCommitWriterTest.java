@@ -0,0 +1,133 @@
+package com.example.personColorAPI.service;
+
+import com.example.personColorAPI.config.GroupCommitConfig;
+import com.example.personColorAPI.model.Person;
+import com.example.personColorAPI.repository.PersonRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link GroupCommitWriter}.
+ * This class tests that concurrent creations are saved in one batch and that every caller receives its result.
+ */
+@ExtendWith(MockitoExtension.class)
+class GroupCommitWriterTest {
+
+    @Mock
+    private PersonRepository personRepository;
+
+    private GroupCommitWriter groupCommitWriter;
+
+    @BeforeEach
+    void setUp() {
+        GroupCommitConfig groupCommitConfig = new GroupCommitConfig();
+        groupCommitConfig.setEnabled(true);
+        groupCommitConfig.setMaxBatchSize(10);
+        groupCommitConfig.setMaxDelayMillis(200);
+        groupCommitWriter = new GroupCommitWriter(personRepository, groupCommitConfig);
+        groupCommitWriter.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        groupCommitWriter.stop();
+    }
+
+    /**
+     * Tests that persons submitted within the delay are saved with a single saveAll call.
+     */
+    @Test
+    void testSubmit_coalescesIntoOneBatch() {
+        when(personRepository.saveAll(anyList())).thenAnswer(invocation -> new ArrayList<>(invocation.<List<Person>>getArgument(0)));
+
+        List<Person> persons = new ArrayList<>();
+        List<CompletableFuture<Person>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Person person = new Person();
+            person.setPersonId(i);
+            persons.add(person);
+            futures.add(groupCommitWriter.submit(person));
+        }
+
+        for (int i = 0; i < 5; i++) {
+            assertSame(persons.get(i), futures.get(i).join());
+        }
+        verify(personRepository, times(1)).saveAll(anyList());
+    }
+
+    /**
+     * Tests that a failing batch fails the future of every caller in the batch.
+     */
+    @Test
+    void testSubmit_whenSaveFails_completesExceptionally() {
+        when(personRepository.saveAll(anyList())).thenThrow(new RuntimeException("Database error"));
+
+        CompletableFuture<Person> future = groupCommitWriter.submit(new Person());
+
+        CompletionException exception = assertThrows(CompletionException.class, future::join);
+        assertEquals("Database error", exception.getCause().getMessage());
+    }
+
+    /**
+     * Tests that an error thrown while saving fails only its batch and the writer keeps committing later batches.
+     */
+    @Test
+    void testSubmit_whenSaveThrowsError_keepsWriterRunning() {
+        when(personRepository.saveAll(anyList()))
+                .thenThrow(new LinkageError("Broken driver"))
+                .thenAnswer(invocation -> new ArrayList<>(invocation.<List<Person>>getArgument(0)));
+
+        CompletableFuture<Person> failed = groupCommitWriter.submit(new Person());
+        CompletionException exception = assertThrows(CompletionException.class, failed::join);
+        assertInstanceOf(LinkageError.class, exception.getCause());
+
+        Person person = new Person();
+        assertSame(person, groupCommitWriter.submit(person).join());
+        assertTrue(groupCommitWriter.isEnabled());
+    }
+
+    /**
+     * Tests that every creation submitted while the writer stops is either committed or failed, so no caller waits forever.
+     */
+    @Test
+    void testSubmit_concurrentWithStop_completesEveryFuture() throws Exception {
+        lenient().when(personRepository.saveAll(anyList())).thenAnswer(invocation -> new ArrayList<>(invocation.<List<Person>>getArgument(0)));
+        List<CompletableFuture<Person>> futures = new CopyOnWriteArrayList<>();
+        ExecutorService submitters = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 4; i++) {
+                submitters.execute(() -> {
+                    for (int n = 0; n < 500; n++) {
+                        futures.add(groupCommitWriter.submit(new Person()));
+                    }
+                });
+            }
+            groupCommitWriter.stop();
+            submitters.shutdown();
+            assertTrue(submitters.awaitTermination(5, TimeUnit.SECONDS));
+        } finally {
+            submitters.shutdownNow();
+        }
+
+        assertEquals(2_000, futures.size());
+        for (CompletableFuture<Person> future : futures) {
+            assertTrue(future.handle((person, error) -> true).get(5, TimeUnit.SECONDS));
+        }
+    }
+}
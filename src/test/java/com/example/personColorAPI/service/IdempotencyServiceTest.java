@@ -0,0 +1,323 @@
+package com.example.personColorAPI.service;
+
+import com.example.personColorAPI.config.IdempotencyConfig;
+import com.example.personColorAPI.model.IdempotencyRecord;
+import com.example.personColorAPI.model.Person;
+import com.example.personColorAPI.repository.IdempotencyRecordRepository;
+import com.example.personColorAPI.repository.PersonRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link IdempotencyService}.
+ * This class tests that a key creates a person only once, also for concurrent and persisted retries.
+ */
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private PersonRepository personRepository;
+
+    private IdempotencyConfig config;
+
+    private IdempotencyService idempotencyService;
+
+    private final AtomicInteger creations = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        config = new IdempotencyConfig();
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, personRepository, config);
+    }
+
+    /**
+     * Tests that a repeated key returns the original person without creating it again.
+     */
+    @Test
+    void testCreateOnce_withRepeatedKey_replaysResult() {
+        Person first = idempotencyService.createOnce("key-1", createPerson(), this::create).person();
+        IdempotentResult retry = idempotencyService.createOnce("key-1", createPerson(), this::create);
+
+        assertTrue(retry.replayed());
+        assertSame(first, retry.person());
+        assertEquals(1, creations.get());
+        verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    /**
+     * Tests that a replay after a change of the color mapping returns the person with its new color.
+     */
+    @Test
+    void testCreateOnce_afterColorMappingChange_replaysNewColor() {
+        Person person = createPerson();
+        person.setColor("blau");
+        idempotencyService.createOnce("key-1", person, this::create);
+
+        idempotencyService.onColorMappingChanged(new ColorMappingChangedEvent(Set.of(1), Map.of(1, "gelb")));
+        IdempotentResult retry = idempotencyService.createOnce("key-1", createPerson(), this::create);
+
+        assertTrue(retry.replayed());
+        assertEquals("gelb", retry.person().getColor());
+        assertEquals(1, retry.person().getId());
+        assertEquals(1, creations.get());
+    }
+
+    /**
+     * Tests that a retry arriving during the first request waits for its result instead of creating a second person.
+     */
+    @Test
+    void testCreateOnce_withConcurrentRetry_waitsForFirstRequest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<IdempotentResult> first = CompletableFuture.supplyAsync(() ->
+                idempotencyService.createOnce("key-1", createPerson(), person -> {
+                    started.countDown();
+                    awaitQuietly(release);
+                    return create(person);
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<IdempotentResult> retry = CompletableFuture.supplyAsync(() ->
+                idempotencyService.createOnce("key-1", createPerson(), this::create));
+        release.countDown();
+
+        assertFalse(first.get(5, TimeUnit.SECONDS).replayed());
+        assertTrue(retry.get(5, TimeUnit.SECONDS).replayed());
+        assertEquals(1, creations.get());
+    }
+
+    /**
+     * Tests that a key sent with a different person is rejected.
+     */
+    @Test
+    void testCreateOnce_withDifferentPerson_isRejected() {
+        idempotencyService.createOnce("key-1", createPerson(), this::create);
+        Person other = createPerson();
+        other.setName("Jürgen");
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> idempotencyService.createOnce("key-1", other, this::create));
+    }
+
+    /**
+     * Tests that a failed creation does not block a retry with the same key.
+     */
+    @Test
+    void testCreateOnce_afterFailure_allowsRetry() {
+        assertThrows(RuntimeException.class, () -> idempotencyService.createOnce("key-1", createPerson(), person -> {
+            throw new RuntimeException("Database error");
+        }));
+
+        assertFalse(idempotencyService.createOnce("key-1", createPerson(), this::create).replayed());
+    }
+
+    /**
+     * Tests that expired and evicted keys create the person again.
+     */
+    @Test
+    void testCreateOnce_withExpiredKey_createsAgain() {
+        config.setTtlMillis(-1);
+
+        idempotencyService.createOnce("key-1", createPerson(), this::create);
+        idempotencyService.createOnce("key-1", createPerson(), this::create);
+
+        assertEquals(2, creations.get());
+    }
+
+    /**
+     * Tests that a key stored in the database by an earlier run is replayed from the database.
+     */
+    @Test
+    void testCreateOnce_withPersistedKey_replaysFromDatabase() {
+        config.setPersistent(true);
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setIdempotencyKey("key-1");
+        record.setPersonEntityId(7L);
+        record.setCreatedAt(Instant.now());
+        Person stored = createPerson();
+        stored.setId(7L);
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.of(record));
+        when(personRepository.findById(7L)).thenReturn(Optional.of(stored));
+
+        IdempotentResult result = idempotencyService.createOnce("key-1", createPerson(), this::create);
+
+        assertTrue(result.replayed());
+        assertSame(stored, result.person());
+        assertEquals(0, creations.get());
+    }
+
+    /**
+     * Tests that a new key is reserved in the database before the creation and completed with the created person.
+     */
+    @Test
+    void testCreateOnce_withPersistence_reservesAndCompletesKey() {
+        config.setPersistent(true);
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.empty());
+
+        idempotencyService.createOnce("key-1", createPerson(), person -> {
+            verify(idempotencyRecordRepository).saveAndFlush(argThat(record -> record.getIdempotencyKey().equals("key-1")
+                    && !record.isCompleted() && record.isNew()));
+            return create(person);
+        });
+
+        verify(idempotencyRecordRepository).complete("key-1", 1L);
+        verify(idempotencyRecordRepository, never()).save(any());
+    }
+
+    /**
+     * Tests that a key reserved by another node at the same time is replayed instead of creating the person again.
+     */
+    @Test
+    void testCreateOnce_withConcurrentReservation_replaysOtherNode() {
+        config.setPersistent(true);
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setIdempotencyKey("key-1");
+        record.setPersonEntityId(7L);
+        record.setCreatedAt(Instant.now());
+        Person stored = createPerson();
+        stored.setId(7L);
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.empty(), Optional.of(record));
+        when(idempotencyRecordRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(personRepository.findById(7L)).thenReturn(Optional.of(stored));
+
+        IdempotentResult result = idempotencyService.createOnce("key-1", createPerson(), this::create);
+
+        assertTrue(result.replayed());
+        assertSame(stored, result.person());
+        assertEquals(0, creations.get());
+    }
+
+    /**
+     * Tests that a key reserved by a request on another node that does not complete in time is rejected.
+     */
+    @Test
+    void testCreateOnce_withPendingReservation_isRejectedAfterTimeout() {
+        config.setPersistent(true);
+        config.setPendingTimeoutMillis(0);
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setIdempotencyKey("key-1");
+        record.setPersonEntityId(IdempotencyRecord.PENDING);
+        record.setCreatedAt(Instant.now());
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.of(record));
+
+        assertThrows(IdempotencyKeyInProgressException.class,
+                () -> idempotencyService.createOnce("key-1", createPerson(), this::create));
+        assertEquals(0, creations.get());
+    }
+
+    /**
+     * Tests that the reservation is released if the creation fails, so a retry can create the person.
+     */
+    @Test
+    void testCreateOnce_withPersistenceAndFailure_releasesReservation() {
+        config.setPersistent(true);
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> idempotencyService.createOnce("key-1", createPerson(), person -> {
+            throw new RuntimeException("Database error");
+        }));
+
+        verify(idempotencyRecordRepository).deleteById("key-1");
+    }
+
+    /**
+     * Tests that a failure to complete the key after the person was created still returns the person,
+     * and that a retry replays it instead of creating it again.
+     */
+    @Test
+    void testCreateOnce_withFailedCompletion_returnsCreatedPerson() {
+        config.setPersistent(true);
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.empty());
+        when(idempotencyRecordRepository.complete("key-1", 1L)).thenThrow(new RuntimeException("Connection lost"));
+
+        IdempotentResult result = idempotencyService.createOnce("key-1", createPerson(), this::create);
+        IdempotentResult retry = idempotencyService.createOnce("key-1", createPerson(), this::create);
+
+        assertFalse(result.replayed());
+        assertTrue(retry.replayed());
+        assertSame(result.person(), retry.person());
+        assertEquals(1, creations.get());
+        verify(idempotencyRecordRepository, never()).deleteById(any());
+    }
+
+    /**
+     * Tests that a key whose creation is still running is not evicted when the store is full,
+     * so a later request with the key is still matched against it.
+     */
+    @Test
+    void testCreateOnce_whenFull_keepsRunningCreation() throws Exception {
+        config.setMaxEntries(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<IdempotentResult> first = CompletableFuture.supplyAsync(() ->
+                idempotencyService.createOnce("key-1", createPerson(), person -> {
+                    started.countDown();
+                    awaitQuietly(release);
+                    return create(person);
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        Person other = createPerson();
+        other.setPersonId(2);
+        idempotencyService.createOnce("key-2", other, this::create);
+        assertThrows(IdempotencyKeyReusedException.class, () -> idempotencyService.createOnce("key-1", other, this::create));
+        release.countDown();
+
+        assertFalse(first.get(5, TimeUnit.SECONDS).replayed());
+        assertEquals(2, creations.get());
+    }
+
+    /**
+     * Tests that blank keys are rejected.
+     */
+    @Test
+    void testCreateOnce_withBlankKey_isRejected() {
+        assertThrows(IllegalArgumentException.class, () -> idempotencyService.createOnce(" ", createPerson(), this::create));
+    }
+
+    private Person create(Person person) {
+        person.setId(creations.incrementAndGet());
+        return person;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Helper method to create a Person object.
+     *
+     * @return a Person object with sample details
+     */
+    private static Person createPerson() {
+        Person person = new Person();
+        person.setName("Hans");
+        person.setLastname("Müller");
+        person.setZipcode("67742");
+        person.setCity("Lauterecken");
+        person.setPersonId(1);
+        return person;
+    }
+}
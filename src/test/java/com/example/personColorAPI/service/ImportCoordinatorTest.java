@@ -0,0 +1,151 @@
+package com.example.personColorAPI.service;
+
+import com.example.personColorAPI.config.ImportCoordinationConfig;
+import com.example.personColorAPI.model.ImportLease;
+import com.example.personColorAPI.model.ImportedFile;
+import com.example.personColorAPI.repository.ImportLeaseRepository;
+import com.example.personColorAPI.repository.ImportedFileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link ImportCoordinator}.
+ * This class tests that the import only runs on the node holding the lease and that imported files are recorded.
+ */
+@ExtendWith(MockitoExtension.class)
+class ImportCoordinatorTest {
+
+    private static final String LEASE = ImportCoordinator.STARTUP_IMPORT_LEASE;
+    private static final FileFingerprint FINGERPRINT = new FileFingerprint(42L, 1_000L, "abc123");
+
+    @Mock
+    private ImportLeaseRepository importLeaseRepository;
+
+    @Mock
+    private ImportedFileRepository importedFileRepository;
+
+    private ImportCoordinationConfig config;
+
+    private ImportCoordinator importCoordinator;
+
+    @BeforeEach
+    void setUp() {
+        config = new ImportCoordinationConfig();
+        config.setEnabled(true);
+        config.setNodeId("node-1");
+        importCoordinator = new ImportCoordinator(importLeaseRepository, importedFileRepository, config);
+    }
+
+    /**
+     * Tests that the import runs and the lease is released when this node can claim the lease.
+     */
+    @Test
+    void testRunExclusively_withClaimedLease_runsImport() throws IOException {
+        when(importLeaseRepository.claim(eq(LEASE), eq("node-1"), any(), any())).thenReturn(1);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        assertTrue(importCoordinator.runExclusively(() -> ran.set(true)));
+
+        assertTrue(ran.get());
+        verify(importLeaseRepository).extend(eq(LEASE), eq("node-1"), any(Instant.class));
+    }
+
+    /**
+     * Tests that a node waits while another node holds the lease and runs the import once the lease is free,
+     * so the import is completed even if the other node dies.
+     */
+    @Test
+    void testRunExclusively_withLeaseHeldByOtherNode_waitsForLease() throws IOException {
+        config.setHeartbeatIntervalMillis(1);
+        when(importLeaseRepository.claim(eq(LEASE), eq("node-1"), any(), any())).thenReturn(0, 0, 1);
+        when(importLeaseRepository.existsById(LEASE)).thenReturn(true);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        assertTrue(importCoordinator.runExclusively(() -> ran.set(true)));
+
+        assertTrue(ran.get());
+        verify(importLeaseRepository, times(3)).claim(eq(LEASE), eq("node-1"), any(), any());
+        verify(importLeaseRepository, never()).saveAndFlush(any());
+    }
+
+    /**
+     * Tests that a node waiting for the lease gives up without importing when its thread is interrupted.
+     */
+    @Test
+    void testRunExclusively_interruptedWhileWaiting_skipsImport() throws IOException {
+        when(importLeaseRepository.claim(eq(LEASE), eq("node-1"), any(), any())).thenReturn(0);
+        when(importLeaseRepository.existsById(LEASE)).thenReturn(true);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        Thread.currentThread().interrupt();
+        try {
+            assertFalse(importCoordinator.runExclusively(() -> ran.set(true)));
+        } finally {
+            assertTrue(Thread.interrupted());
+        }
+
+        assertFalse(ran.get());
+        verify(importLeaseRepository, never()).extend(any(), any(), any());
+    }
+
+    /**
+     * Tests that the first node creates the lease row and that a node losing the creation race skips the import.
+     */
+    @Test
+    void testTryAcquireLease_createsLeaseOnlyOnce() {
+        when(importLeaseRepository.claim(eq(LEASE), eq("node-1"), any(), any())).thenReturn(0);
+        when(importLeaseRepository.existsById(LEASE)).thenReturn(false);
+        when(importLeaseRepository.saveAndFlush(any(ImportLease.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        assertTrue(importCoordinator.tryAcquireLease());
+        assertFalse(importCoordinator.tryAcquireLease());
+    }
+
+    /**
+     * Tests that without coordination the import runs without touching the lease.
+     */
+    @Test
+    void testRunExclusively_disabled_runsWithoutLease() throws IOException {
+        config.setEnabled(false);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        assertTrue(importCoordinator.runExclusively(() -> ran.set(true)));
+
+        assertTrue(ran.get());
+        assertFalse(importCoordinator.isImported(FINGERPRINT));
+        assertTrue(importCoordinator.findImported(Path.of("data", "north.csv")).isEmpty());
+        verifyNoInteractions(importLeaseRepository, importedFileRepository);
+    }
+
+    /**
+     * Tests that an imported file is recorded by its content hash and found again.
+     */
+    @Test
+    void testMarkImported_recordsFingerprint() {
+        importCoordinator.markImported(Path.of("data", "north.csv"), FINGERPRINT, 7);
+        when(importedFileRepository.existsById("abc123")).thenReturn(true);
+
+        ArgumentCaptor<ImportedFile> captor = ArgumentCaptor.forClass(ImportedFile.class);
+        verify(importedFileRepository).save(captor.capture());
+        assertEquals("abc123", captor.getValue().getSha256());
+        assertEquals("north.csv", captor.getValue().getFileName());
+        assertEquals(7, captor.getValue().getRowCount());
+        assertEquals("node-1", captor.getValue().getImportedBy());
+        assertTrue(importCoordinator.isImported(FINGERPRINT));
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.personColorAPI.service;
+
+import com.example.personColorAPI.config.ImportConfig;
+import com.example.personColorAPI.config.ImportGovernorConfig;
+import com.example.personColorAPI.monitoring.ConnectionPoolMonitor;
+import com.example.personColorAPI.monitoring.RequestLatencyTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ImportGovernor}.
+ * This class tests the rate limit, the reserved connections and the adaptive backoff of import batches,
+ * and that exclusive actions never overlap with a batch.
+ */
+@ExtendWith(MockitoExtension.class)
+class ImportGovernorTest {
+
+    @Mock
+    private RequestLatencyTracker requestLatencyTracker;
+
+    @Mock
+    private ConnectionPoolMonitor connectionPoolMonitor;
+
+    private ImportConfig importConfig;
+
+    private ImportGovernorConfig governorConfig;
+
+    @BeforeEach
+    void setUp() {
+        importConfig = new ImportConfig();
+        importConfig.setMaxConcurrentWriters(4);
+        governorConfig = new ImportGovernorConfig();
+        governorConfig.setMinBackoffMillis(1);
+        governorConfig.setMaxBackoffMillis(4);
+        lenient().when(connectionPoolMonitor.getMaximumPoolSize()).thenReturn(10);
+        lenient().when(connectionPoolMonitor.getFreeConnections()).thenReturn(10);
+    }
+
+    /**
+     * Tests that the limit grows up to the maximum number of concurrent writers without pressure.
+     */
+    @Test
+    void testAcquire_withoutPressure_keepsMaximumLimit() {
+        ImportGovernor importGovernor = newGovernor();
+
+        importGovernor.acquire(10);
+        importGovernor.release();
+
+        assertEquals(4, importGovernor.getLimit());
+    }
+
+    /**
+     * Tests that slow requests halve the limit down to a single batch at a time.
+     */
+    @Test
+    void testAcquire_withSlowRequests_reducesLimit() {
+        when(requestLatencyTracker.getAverageMillis()).thenReturn(1_000.0);
+        ImportGovernor importGovernor = newGovernor();
+
+        importGovernor.acquire(10);
+        importGovernor.release();
+        assertEquals(2, importGovernor.getLimit());
+
+        importGovernor.acquire(10);
+        importGovernor.release();
+        importGovernor.acquire(10);
+        importGovernor.release();
+        assertEquals(1, importGovernor.getLimit());
+    }
+
+    /**
+     * Tests that the limit recovers additively once the pressure is gone.
+     */
+    @Test
+    void testAcquire_afterPressure_increasesLimitAgain() {
+        when(connectionPoolMonitor.getThreadsAwaitingConnection()).thenReturn(3, 3, 0);
+        ImportGovernor importGovernor = newGovernor();
+
+        importGovernor.acquire(10);
+        importGovernor.release();
+        importGovernor.acquire(10);
+        importGovernor.release();
+        assertEquals(1, importGovernor.getLimit());
+
+        importGovernor.acquire(10);
+        importGovernor.release();
+        assertEquals(2, importGovernor.getLimit());
+    }
+
+    /**
+     * Tests that the import backs off when only the reserved connections are free.
+     */
+    @Test
+    void testIsUnderPressure_withReservedConnectionsOnly() {
+        when(connectionPoolMonitor.getFreeConnections()).thenReturn(2);
+
+        assertTrue(newGovernor().isUnderPressure());
+    }
+
+    /**
+     * Tests that the limit never exceeds the pool size minus the reserved connections.
+     */
+    @Test
+    void testAcquire_withSmallPool_keepsReservedConnections() {
+        when(connectionPoolMonitor.getMaximumPoolSize()).thenReturn(3);
+        ImportGovernor importGovernor = newGovernor();
+
+        importGovernor.acquire(10);
+        importGovernor.release();
+
+        assertEquals(1, importGovernor.getLimit());
+    }
+
+    /**
+     * Tests that a disabled governor ignores slow requests.
+     */
+    @Test
+    void testIsUnderPressure_whenDisabled() {
+        governorConfig.setEnabled(false);
+        lenient().when(requestLatencyTracker.getAverageMillis()).thenReturn(1_000.0);
+
+        assertFalse(newGovernor().isUnderPressure());
+    }
+
+    /**
+     * Tests that batches are paced according to the configured rows per second.
+     */
+    @Test
+    void testAcquire_withRateLimit_pacesBatches() {
+        governorConfig.setMaxRowsPerSecond(1_000);
+        ImportGovernor importGovernor = newGovernor();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            importGovernor.acquire(100);
+            importGovernor.release();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis >= 190, "Three batches of 100 rows at 1000 rows/s took only " + elapsedMillis + " ms.");
+    }
+
+    /**
+     * Tests that an exclusive action waits for the running batch and that new batches wait for the action.
+     */
+    @Test
+    void testRunExclusively_waitsForRunningBatchAndBlocksNewBatches() throws Exception {
+        ImportGovernor importGovernor = newGovernor();
+        importGovernor.acquire(10);
+
+        CountDownLatch actionStarted = new CountDownLatch(1);
+        CountDownLatch finishAction = new CountDownLatch(1);
+        CompletableFuture<String> action = CompletableFuture.supplyAsync(() -> importGovernor.runExclusively(() -> {
+            actionStarted.countDown();
+            awaitQuietly(finishAction);
+            return "recolored";
+        }));
+        assertFalse(actionStarted.await(100, TimeUnit.MILLISECONDS));
+
+        importGovernor.release();
+        assertTrue(actionStarted.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Void> batch = CompletableFuture.runAsync(() -> importGovernor.acquire(10));
+        Thread.sleep(100);
+        assertFalse(batch.isDone());
+
+        finishAction.countDown();
+        assertEquals("recolored", action.get(5, TimeUnit.SECONDS));
+        batch.get(5, TimeUnit.SECONDS);
+        importGovernor.release();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ImportGovernor newGovernor() {
+        return new ImportGovernor(importConfig, governorConfig, requestLatencyTracker, connectionPoolMonitor);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.personColorAPI.service;
+
+import com.example.personColorAPI.config.FileConfig;
+import com.example.personColorAPI.model.Person;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link MultiFileImportService}.
+ * This class tests importing all matching files of a directory with per-file results.
+ */
+@ExtendWith(MockitoExtension.class)
+class MultiFileImportServiceTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Mock
+    private CsvFileReaderService csvFileReaderService;
+
+    @Mock
+    private CsvImporterService csvImporterService;
+
+    @Mock
+    private ImportCoordinator importCoordinator;
+
+    private MultiFileImportService multiFileImportService;
+
+    @BeforeEach
+    void setUp() {
+        FileConfig fileConfig = new FileConfig();
+        fileConfig.setDirectory(tempDir.toString());
+        fileConfig.setPattern("*.csv");
+        fileConfig.setWorkerThreads(2);
+        multiFileImportService = new MultiFileImportService(fileConfig, csvFileReaderService, csvImporterService, importCoordinator);
+    }
+
+    /**
+     * Tests that every matching file is imported and that other files are ignored.
+     */
+    @Test
+    void testImportDirectory_importsMatchingFiles() throws IOException {
+        Path north = Files.createFile(tempDir.resolve("north.csv"));
+        Path south = Files.createFile(tempDir.resolve("south.csv"));
+        Files.createFile(tempDir.resolve("readme.txt"));
+
+        when(csvFileReaderService.readCsvFile(any(Path.class))).thenReturn(List.of(new Person()));
+        when(csvImporterService.importPersons(anyList(), any(PersonKeyClaims.class))).thenReturn(new ImportResult(1, 0));
+
+        List<FileImportResult> results = multiFileImportService.importDirectory();
+
+        assertEquals(2, results.size());
+        assertEquals(north, results.get(0).file());
+        assertEquals(south, results.get(1).file());
+        assertTrue(results.stream().allMatch(FileImportResult::isSuccessful));
+        verify(csvImporterService, times(2)).importPersons(anyList(), any(PersonKeyClaims.class));
+    }
+
+    /**
+     * Tests that a failing file is reported without stopping the import of the other files.
+     */
+    @Test
+    void testImportDirectory_withFailingFile_continues() throws IOException {
+        Path broken = Files.createFile(tempDir.resolve("a-broken.csv"));
+        Path valid = Files.createFile(tempDir.resolve("b-valid.csv"));
+
+        when(csvFileReaderService.readCsvFile(broken)).thenThrow(new IOException("unreadable"));
+        when(csvFileReaderService.readCsvFile(valid)).thenReturn(List.of(new Person()));
+        when(csvImporterService.importPersons(anyList(), any(PersonKeyClaims.class))).thenReturn(new ImportResult(1, 0));
+
+        List<FileImportResult> results = multiFileImportService.importDirectory();
+
+        assertFalse(results.get(0).isSuccessful());
+        assertEquals("unreadable", results.get(0).error());
+        assertTrue(results.get(1).isSuccessful());
+        assertEquals(1, results.get(1).imported());
+    }
+
+    /**
+     * Tests that a file failing after some batches were committed reports the committed batches and persons.
+     */
+    @Test
+    void testImportDirectory_withPartiallyCommittedFile_reportsCommittedBatches() throws IOException {
+        Path partial = Files.createFile(tempDir.resolve("partial.csv"));
+
+        when(csvFileReaderService.readCsvFile(partial)).thenReturn(List.of(new Person(), new Person(), new Person()));
+        when(csvImporterService.importPersons(anyList(), any(PersonKeyClaims.class))).thenThrow(
+                new ImportFailedException(1, 2, new ImportResult(2, 0), new RuntimeException("Database error")));
+
+        List<FileImportResult> results = multiFileImportService.importDirectory();
+
+        assertFalse(results.get(0).isSuccessful());
+        assertEquals(3, results.get(0).rowsRead());
+        assertEquals(2, results.get(0).imported());
+        assertTrue(results.get(0).error().endsWith("1 of 2 batches committed."));
+        verify(importCoordinator, never()).markImported(any(), any(), anyInt());
+    }
+
+    /**
+     * Tests that a file imported before is skipped and that a newly imported file is recorded.
+     */
+    @Test
+    void testImportDirectory_skipsAlreadyImportedFile() throws IOException {
+        Path known = Files.writeString(tempDir.resolve("a-known.csv"), "known");
+        Path fresh = Files.writeString(tempDir.resolve("b-fresh.csv"), "fresh");
+
+        when(importCoordinator.isEnabled()).thenReturn(true);
+        when(importCoordinator.isImported(any(FileFingerprint.class)))
+                .thenAnswer(invocation -> invocation.<FileFingerprint>getArgument(0).equals(FileFingerprint.of(known)));
+        when(csvFileReaderService.readCsvFile(fresh)).thenReturn(List.of(new Person()));
+        when(csvImporterService.importPersons(anyList(), any(PersonKeyClaims.class))).thenReturn(new ImportResult(1, 0));
+
+        List<FileImportResult> results = multiFileImportService.importDirectory();
+
+        assertEquals(0, results.get(0).rowsRead());
+        assertEquals(1, results.get(1).imported());
+        verify(csvFileReaderService, never()).readCsvFile(known);
+        verify(importCoordinator).markImported(eq(fresh), eq(FileFingerprint.of(fresh)), eq(1));
+        verify(importCoordinator, never()).markImported(eq(known), any(), anyInt());
+    }
+}
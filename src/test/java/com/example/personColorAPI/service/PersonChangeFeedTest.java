@@ -0,0 +1,208 @@
+package com.example.personColorAPI.service;
+
+import com.example.personColorAPI.config.ChangeFeedConfig;
+import com.example.personColorAPI.model.Person;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PersonChangeFeed}.
+ * This class tests the color filter, the resumption in commit order and the disconnect of slow subscribers.
+ */
+class PersonChangeFeedTest {
+
+    private ChangeFeedConfig config;
+
+    private RecordingEmitter emitter;
+
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    private PersonChangeFeed personChangeFeed;
+
+    @BeforeEach
+    void setUp() {
+        config = new ChangeFeedConfig();
+        emitter = new RecordingEmitter();
+        personChangeFeed = new PersonChangeFeed(config) {
+            @Override
+            SseEmitter createEmitter() {
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        emitters.forEach(recordingEmitter -> recordingEmitter.release.countDown());
+        personChangeFeed.stop();
+    }
+
+    /**
+     * Tests that a subscriber only receives persons with one of its colors.
+     */
+    @Test
+    void testOnPersonsCreated_filtersByColor() throws InterruptedException {
+        personChangeFeed.subscribe(Set.of("blau"), null);
+
+        personChangeFeed.onPersonsCreated(new PersonsCreatedEvent(List.of(createPerson(1, "rot"), createPerson(2, "blau"))));
+
+        assertEquals(List.of(2L), emitter.awaitIds(1));
+    }
+
+    /**
+     * Tests that a resuming subscriber receives the persons committed after its last event in commit order,
+     * including a person with a smaller id that was committed later.
+     */
+    @Test
+    void testSubscribe_withLastEventId_resumesInCommitOrder() throws InterruptedException {
+        RecordingEmitter first = emitter;
+        personChangeFeed.subscribe(Set.of(), null);
+        personChangeFeed.onPersonsCreated(new PersonsCreatedEvent(List.of(createPerson(5, "rot"))));
+        personChangeFeed.onPersonsCreated(new PersonsCreatedEvent(List.of(createPerson(3, "blau"))));
+        assertEquals(List.of(5L, 3L), first.awaitIds(2));
+
+        emitter = new RecordingEmitter();
+        personChangeFeed.subscribe(Set.of(), first.eventIds.get(0));
+        personChangeFeed.onPersonsCreated(new PersonsCreatedEvent(List.of(createPerson(6, "gelb"))));
+
+        assertEquals(List.of(3L, 6L), emitter.awaitIds(2));
+        assertEquals(first.eventIds.get(1), emitter.eventIds.get(0));
+        assertFalse(emitter.events.contains(PersonChangeFeed.RESET_EVENT_NAME));
+    }
+
+    /**
+     * Tests that a subscriber resuming from an event id that is not in the history is told to reload first.
+     */
+    @Test
+    void testSubscribe_withUnknownLastEventId_sendsReset() throws InterruptedException {
+        personChangeFeed.subscribe(Set.of(), 42L);
+        personChangeFeed.onPersonsCreated(new PersonsCreatedEvent(List.of(createPerson(1, "rot"))));
+
+        assertEquals(List.of(1L), emitter.awaitIds(1));
+        assertEquals(List.of(PersonChangeFeed.RESET_EVENT_NAME, PersonChangeFeed.EVENT_NAME), emitter.events);
+    }
+
+    /**
+     * Tests that a subscriber whose buffer is full is disconnected without blocking the publisher.
+     */
+    @Test
+    void testOnPersonsCreated_withFullBuffer_disconnectsSubscriber() {
+        config.setBufferSize(1);
+        emitter.release = new CountDownLatch(1);
+        personChangeFeed.subscribe(Set.of(), null);
+
+        for (int i = 1; i <= 3; i++) {
+            personChangeFeed.onPersonsCreated(new PersonsCreatedEvent(List.of(createPerson(i, "rot"))));
+        }
+
+        assertEquals(0, personChangeFeed.getSubscriberCount());
+    }
+
+    /**
+     * Tests that a subscriber blocked in a write does not delay the others and is disconnected after the write timeout.
+     */
+    @Test
+    void testOnPersonsCreated_withStalledSubscriber_keepsDeliveringToOthers() throws InterruptedException {
+        RecordingEmitter stalled = emitter;
+        stalled.release = new CountDownLatch(1);
+        personChangeFeed.subscribe(Set.of(), null);
+        emitter = new RecordingEmitter();
+        personChangeFeed.subscribe(Set.of(), null);
+
+        personChangeFeed.onPersonsCreated(new PersonsCreatedEvent(List.of(createPerson(1, "rot"))));
+        personChangeFeed.onPersonsCreated(new PersonsCreatedEvent(List.of(createPerson(2, "rot"))));
+
+        assertEquals(List.of(1L, 2L), emitter.awaitIds(2));
+        assertTrue(stalled.ids.isEmpty());
+
+        config.setWriteTimeoutMillis(1);
+        Thread.sleep(20);
+        personChangeFeed.disconnectStalled();
+
+        assertEquals(1, personChangeFeed.getSubscriberCount());
+    }
+
+    /**
+     * Tests that no further subscription is accepted once the maximum number of subscribers is reached.
+     */
+    @Test
+    void testSubscribe_withTooManySubscribers_isRejected() {
+        config.setMaxSubscribers(1);
+
+        assertTrue(personChangeFeed.subscribe(Set.of(), null).isPresent());
+        assertTrue(personChangeFeed.subscribe(Set.of(), null).isEmpty());
+    }
+
+    /**
+     * Helper method to create a stored Person object.
+     *
+     * @param id    the generated id of the person
+     * @param color the color of the person
+     * @return a Person object with the given id and color
+     */
+    private Person createPerson(long id, String color) {
+        Person person = new Person();
+        person.setId(id);
+        person.setColor(color);
+        return person;
+    }
+
+    /**
+     * An emitter that records the sent events and can hold back sending until it is released.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private static final Pattern EVENT_ID = Pattern.compile("^id:(\\d+)$", Pattern.MULTILINE);
+        private static final Pattern EVENT_NAME = Pattern.compile("^event:(.+)$", Pattern.MULTILINE);
+
+        private final List<Long> ids = new CopyOnWriteArrayList<>();
+        private final List<Long> eventIds = new CopyOnWriteArrayList<>();
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private volatile CountDownLatch release = new CountDownLatch(0);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            for (DataWithMediaType data : builder.build()) {
+                if (data.getData() instanceof Person person) {
+                    ids.add(person.getId());
+                } else if (data.getData() instanceof String text) {
+                    Matcher eventId = EVENT_ID.matcher(text);
+                    if (eventId.find()) {
+                        eventIds.add(Long.parseLong(eventId.group(1)));
+                    }
+                    Matcher eventName = EVENT_NAME.matcher(text);
+                    if (eventName.find()) {
+                        events.add(eventName.group(1));
+                    }
+                }
+            }
+        }
+
+        private List<Long> awaitIds(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (ids.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            return List.copyOf(ids);
+        }
+    }
+}
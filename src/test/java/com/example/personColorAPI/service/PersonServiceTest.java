@@ -1,14 +1,21 @@
 package com.example.personColorAPI.service;
 
 import com.example.personColorAPI.model.Person;
+import com.example.personColorAPI.model.PersonLookupRequest;
+import com.example.personColorAPI.model.PersonLookupResult;
 import com.example.personColorAPI.repository.PersonRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -24,6 +31,12 @@ class PersonServiceTest {
     @Mock
     private PersonRepository personRepository;
 
+    @Mock
+    private GroupCommitWriter groupCommitWriter;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private PersonService personService;
 
@@ -90,6 +103,45 @@ class PersonServiceTest {
         verify(personRepository, times(1)).findByColor("blau");
     }
 
+    /**
+     * Test for looking up persons by several personIds and colors.
+     * Verifies that each key type is resolved with one query and that the persons are grouped by key.
+     */
+    @Test
+    public void testLookupPersons() {
+        Person blue = createPerson();
+        Person red = createPerson();
+        red.setPersonId(2);
+        red.setColor("rot");
+        when(personRepository.findByPersonIdIn(Set.of(1, 2, 3))).thenReturn(List.of(blue, red));
+        when(personRepository.findByColorIn(Set.of("rot"))).thenReturn(List.of(red));
+
+        PersonLookupResult result = personService.lookupPersons(new PersonLookupRequest(List.of(1, 2, 3, 1), List.of("rot")));
+
+        assertEquals(List.of(1, 2, 3), List.copyOf(result.byPersonId().keySet()));
+        assertEquals(List.of(blue), result.byPersonId().get(1));
+        assertEquals(List.of(red), result.byPersonId().get(2));
+        assertEquals(List.of(), result.byPersonId().get(3));
+        assertEquals(List.of(red), result.byColor().get("rot"));
+        verify(personRepository, times(1)).findByPersonIdIn(anyCollection());
+        verify(personRepository, times(1)).findByColorIn(anyCollection());
+    }
+
+    /**
+     * Test for looking up more keys than allowed.
+     * Verifies that the lookup is rejected without querying the database.
+     */
+    @Test
+    public void testLookupPersons_TooManyKeys() {
+        List<Integer> personIds = new ArrayList<>();
+        for (int i = 0; i <= PersonService.MAX_LOOKUP_KEYS; i++) {
+            personIds.add(i);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> personService.lookupPersons(new PersonLookupRequest(personIds, null)));
+        verifyNoInteractions(personRepository);
+    }
+
     /**
      * Test for adding a new person to the repository.
      * Verifies that the service successfully saves and returns the person when added.
@@ -105,6 +157,7 @@ class PersonServiceTest {
         assertNotNull(result);
         assertEquals(person, result);
         verify(personRepository, times(1)).save(person);
+        verify(eventPublisher).publishEvent(new PersonsCreatedEvent(List.of(person)));
     }
 
     /**
@@ -120,6 +173,74 @@ class PersonServiceTest {
         assertThrows(RuntimeException.class, () -> personService.addPerson(person));
     }
 
+    /**
+     * Test for adding a new person while the group commit is enabled.
+     * Verifies that the person is saved through the group commit writer instead of the repository.
+     */
+    @Test
+    public void testAddPerson_GroupCommit() {
+        Person person = createPerson();
+
+        when(groupCommitWriter.isEnabled()).thenReturn(true);
+        when(groupCommitWriter.submit(person)).thenReturn(CompletableFuture.completedFuture(person));
+
+        Person result = personService.addPerson(person);
+
+        assertEquals(person, result);
+        verify(personRepository, never()).save(any());
+    }
+
+    /**
+     * Test for adding a new person while the group commit does not complete in time.
+     * Verifies that the caller fails after the commit timeout instead of waiting forever.
+     */
+    @Test
+    public void testAddPerson_GroupCommitTimeout() {
+        Person person = createPerson();
+
+        when(groupCommitWriter.isEnabled()).thenReturn(true);
+        when(groupCommitWriter.getCommitTimeoutMillis()).thenReturn(10L);
+        when(groupCommitWriter.submit(person)).thenReturn(new CompletableFuture<>());
+
+        assertThrows(IllegalStateException.class, () -> personService.addPerson(person));
+        verify(personRepository, never()).save(any());
+    }
+
+    /**
+     * Test for retrieving selected fields of persons by their ID.
+     * Verifies that the parsed fields are passed to the repository in the requested order.
+     */
+    @Test
+    public void testGetPersonsById_WithFields() {
+        List<Map<String, Object>> rows = List.of(Map.of("personId", 1, "name", "Rand"));
+        when(personRepository.findFieldsByPersonId(List.of("personId", "name"), 1)).thenReturn(rows);
+
+        List<Map<String, Object>> result = personService.getPersonsById(1, "personId, name");
+
+        assertEquals(rows, result);
+        verify(personRepository, never()).findByPersonId(anyInt());
+    }
+
+    /**
+     * Test for parsing the requested fields.
+     * Verifies that blank and repeated fields are ignored and the order is kept.
+     */
+    @Test
+    public void testParseFields() {
+        assertEquals(List.of("color", "personId", "name"), PersonService.parseFields("color,personId,,name,color"));
+    }
+
+    /**
+     * Test for parsing unknown or missing fields.
+     * Verifies that an IllegalArgumentException is thrown and the repository is not queried.
+     */
+    @Test
+    public void testGetAllPersons_WithInvalidFields() {
+        assertThrows(IllegalArgumentException.class, () -> personService.getAllPersons("name,password"));
+        assertThrows(IllegalArgumentException.class, () -> personService.getAllPersons(" , "));
+        verifyNoInteractions(personRepository);
+    }
+
     /**
      * Helper method to create a mock Person object.
      *
@@ -0,0 +1,113 @@
+package com.example.personColorAPI.service;
+
+import com.example.personColorAPI.config.SnapshotConfig;
+import com.example.personColorAPI.model.Person;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PersonSnapshotService}.
+ * This class tests writing a snapshot and restoring it only for an unchanged input file.
+ */
+class PersonSnapshotServiceTest {
+
+    private static final FileFingerprint FINGERPRINT = new FileFingerprint(42L, 1_000L, "abc123");
+
+    @TempDir
+    private Path tempDir;
+
+    private Path snapshotPath;
+
+    private PersonSnapshotService personSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        snapshotPath = tempDir.resolve("snapshot.bin");
+        SnapshotConfig snapshotConfig = new SnapshotConfig();
+        snapshotConfig.setEnabled(true);
+        snapshotConfig.setPath(snapshotPath.toString());
+        personSnapshotService = new PersonSnapshotService(snapshotConfig);
+    }
+
+    /**
+     * Tests that a written snapshot is restored with all fields for the same fingerprint.
+     */
+    @Test
+    void testWriteAndReadSnapshot_success() throws IOException {
+        personSnapshotService.writeSnapshot(FINGERPRINT, List.of(createPerson("Hans", 1), createPerson("Jürgen", 2)));
+
+        Optional<List<Person>> snapshot = personSnapshotService.readSnapshot(FINGERPRINT);
+
+        assertTrue(snapshot.isPresent());
+        assertEquals(2, snapshot.get().size());
+        Person restored = snapshot.get().get(1);
+        assertEquals("Jürgen", restored.getName());
+        assertEquals("Müller", restored.getLastname());
+        assertEquals("67742", restored.getZipcode());
+        assertEquals("Lauterecken", restored.getCity());
+        assertEquals("grün", restored.getColor());
+        assertEquals(2, restored.getPersonId());
+    }
+
+    /**
+     * Tests that a snapshot written for another input file is ignored.
+     */
+    @Test
+    void testReadSnapshot_withChangedFingerprint_isIgnored() throws IOException {
+        personSnapshotService.writeSnapshot(FINGERPRINT, List.of(createPerson("Hans", 1)));
+
+        Optional<List<Person>> snapshot = personSnapshotService.readSnapshot(new FileFingerprint(43L, 1_000L, "abc123"));
+
+        assertTrue(snapshot.isEmpty());
+    }
+
+    /**
+     * Tests that a snapshot with a corrupted payload is ignored.
+     */
+    @Test
+    void testReadSnapshot_withCorruptedPayload_isIgnored() throws IOException {
+        personSnapshotService.writeSnapshot(FINGERPRINT, List.of(createPerson("Hans", 1)));
+        byte[] bytes = Files.readAllBytes(snapshotPath);
+        bytes[bytes.length - 1] ^= 0x01;
+        Files.write(snapshotPath, bytes);
+
+        Optional<List<Person>> snapshot = personSnapshotService.readSnapshot(FINGERPRINT);
+
+        assertTrue(snapshot.isEmpty());
+    }
+
+    /**
+     * Tests that a missing snapshot file results in an empty result.
+     */
+    @Test
+    void testReadSnapshot_withoutSnapshotFile_isEmpty() {
+        assertTrue(personSnapshotService.readSnapshot(FINGERPRINT).isEmpty());
+    }
+
+    /**
+     * Helper method to create a Person object.
+     *
+     * @param name     the name of the person
+     * @param personId the unique identifier for the person
+     * @return a Person object with the given details
+     */
+    private Person createPerson(String name, int personId) {
+        Person person = new Person();
+        person.setName(name);
+        person.setLastname("Müller");
+        person.setZipcode("67742");
+        person.setCity("Lauterecken");
+        person.setColor("grün");
+        person.setPersonId(personId);
+        return person;
+    }
+}
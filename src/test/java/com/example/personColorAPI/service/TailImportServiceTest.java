@@ -0,0 +1,263 @@
+package com.example.personColorAPI.service;
+
+import com.example.personColorAPI.config.ColorConfig;
+import com.example.personColorAPI.config.FileConfig;
+import com.example.personColorAPI.config.ImportConfig;
+import com.example.personColorAPI.config.TailImportConfig;
+import com.example.personColorAPI.model.ImportCheckpoint;
+import com.example.personColorAPI.model.ImportedFile;
+import com.example.personColorAPI.model.Person;
+import com.example.personColorAPI.model.PersonKey;
+import com.example.personColorAPI.repository.ImportCheckpointRepository;
+import com.example.personColorAPI.repository.PersonRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link TailImportService}.
+ * This class tests that only appended rows are imported, that the checkpoint is committed with each batch
+ * and that a truncated or rotated file is imported again from the start without duplicating persons.
+ */
+@ExtendWith(MockitoExtension.class)
+class TailImportServiceTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Mock
+    private PersonRepository personRepository;
+
+    @Mock
+    private ImportCheckpointRepository importCheckpointRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ImportGovernor importGovernor;
+
+    @Mock
+    private ImportCoordinator importCoordinator;
+
+    private final Map<String, ImportCheckpoint> checkpoints = new HashMap<>();
+
+    private final List<Person> savedPersons = new ArrayList<>();
+
+    private Path feed;
+
+    private TailImportService tailImportService;
+
+    @BeforeEach
+    void setUp() {
+        feed = tempDir.resolve("feed.csv");
+        FileConfig fileConfig = new FileConfig();
+        fileConfig.setFilePath(feed.toString());
+        ColorConfig colorConfig = new ColorConfig();
+        colorConfig.setColors(Map.of(1, "blau", 2, "grün"));
+        ImportConfig importConfig = new ImportConfig();
+        importConfig.setBatchSize(2);
+        tailImportService = new TailImportService(fileConfig, new TailImportConfig(), importConfig,
+                new CsvFileReaderService(fileConfig, colorConfig), personRepository, importCheckpointRepository,
+                transactionTemplate, eventPublisher, importGovernor, importCoordinator, colorConfig);
+
+        lenient().when(importCheckpointRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(checkpoints.get(invocation.<String>getArgument(0))));
+        lenient().when(importCheckpointRepository.save(any(ImportCheckpoint.class))).thenAnswer(invocation -> {
+            ImportCheckpoint checkpoint = invocation.getArgument(0);
+            checkpoints.put(checkpoint.getFileKey(), checkpoint);
+            return checkpoint;
+        });
+        lenient().when(personRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            savedPersons.addAll(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    /**
+     * Tests that complete rows are imported in batches and that a row without a line break waits for the next poll.
+     */
+    @Test
+    void testImportTail_importsCompleteRowsOnly() throws IOException {
+        write("Müller, Hans, 67742 Lauterecken, 1\nPetersen, Peter, 18439 Stralsund, 2\nJohnson, Johnny, 88888 made up, 1\nBauer, Bea");
+
+        assertEquals(3, tailImportService.importTail(feed));
+
+        ImportCheckpoint checkpoint = checkpoints.values().iterator().next();
+        assertEquals(Files.size(feed) - "Bauer, Bea".length(), checkpoint.getByteOffset());
+        assertEquals(3, checkpoint.getLineCount());
+        assertEquals(3, checkpoint.getRecordCount());
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(eventPublisher, times(2)).publishEvent(any(PersonsCreatedEvent.class));
+
+        append(", 77777 Stadt, 2\n");
+
+        assertEquals(1, tailImportService.importTail(feed));
+        assertEquals("Bauer", savedPersons.get(3).getLastname());
+        assertEquals("grün", savedPersons.get(3).getColor());
+        assertEquals(Files.size(feed), checkpoints.values().iterator().next().getByteOffset());
+    }
+
+    /**
+     * Tests that a restart resumes after the committed checkpoint without reading the earlier rows again.
+     */
+    @Test
+    void testImportTail_resumesFromCheckpoint() throws IOException {
+        write("Müller, Hans, 67742 Lauterecken, 1\n");
+        tailImportService.importTail(feed);
+        append("Petersen, Peter, 18439 Stralsund, 2\n");
+
+        assertEquals(1, tailImportService.importTail(feed));
+
+        assertEquals(List.of("Müller", "Petersen"), savedPersons.stream().map(Person::getLastname).toList());
+        assertEquals(2, checkpoints.values().iterator().next().getLineCount());
+    }
+
+    /**
+     * Tests that an unchanged file does not start a transaction.
+     */
+    @Test
+    void testImportTail_withoutAppendedRows_doesNothing() throws IOException {
+        write("Müller, Hans, 67742 Lauterecken, 1\n");
+        tailImportService.importTail(feed);
+        clearInvocations(transactionTemplate);
+
+        assertEquals(0, tailImportService.importTail(feed));
+
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    /**
+     * Tests that a truncated or rotated file is imported again from the start.
+     */
+    @Test
+    void testImportTail_withRotatedFile_restartsFromStart() throws IOException {
+        write("Müller, Hans, 67742 Lauterecken, 1\nPetersen, Peter, 18439 Stralsund, 2\n");
+        tailImportService.importTail(feed);
+        write("Neu, Nina, 10115 Berlin, 1\n");
+
+        assertEquals(1, tailImportService.importTail(feed));
+
+        assertEquals("Neu", savedPersons.get(2).getLastname());
+        ImportCheckpoint checkpoint = checkpoints.values().iterator().next();
+        assertEquals(Files.size(feed), checkpoint.getByteOffset());
+        assertEquals(1, checkpoint.getLineCount());
+    }
+
+    /**
+     * Tests that a row repeated in a later batch of the file is imported only once.
+     */
+    @Test
+    void testImportTail_withRepeatedRowInLaterBatch_importsItOnce() throws IOException {
+        write("Müller, Hans, 67742 Lauterecken, 1\nPetersen, Peter, 18439 Stralsund, 2\nMüller, Hans, 67742 Lauterecken, 1\n");
+
+        assertEquals(2, tailImportService.importTail(feed));
+
+        assertEquals(List.of("Müller", "Petersen"), savedPersons.stream().map(Person::getLastname).toList());
+        assertEquals(2, checkpoints.values().iterator().next().getRecordCount());
+    }
+
+    /**
+     * Tests that persons already in the database are skipped, so a file imported again from the start
+     * does not duplicate them.
+     */
+    @Test
+    void testImportTail_withExistingPersons_skipsThem() throws IOException {
+        write("Müller, Hans, 67742 Lauterecken, 1\nPetersen, Peter, 18439 Stralsund, 2\n");
+        when(personRepository.findExistingKeys(anyCollection()))
+                .thenReturn(Set.of(new PersonKey("Hans", "Müller", "67742", 1)));
+
+        assertEquals(1, tailImportService.importTail(feed));
+
+        assertEquals(List.of("Petersen"), savedPersons.stream().map(Person::getLastname).toList());
+        assertEquals(Files.size(feed), checkpoints.values().iterator().next().getByteOffset());
+    }
+
+    /**
+     * Tests that a file recorded as completely imported is not read again, and that only the rows appended
+     * after the import are imported.
+     */
+    @Test
+    void testImportTail_withImportedFile_startsAfterImportedContent() throws IOException {
+        write("Müller, Hans, 67742 Lauterecken, 1\nPetersen, Peter, 18439 Stralsund, 2\n");
+        ImportedFile importedFile = new ImportedFile();
+        importedFile.setSha256(sha256(Files.readAllBytes(feed)));
+        importedFile.setFileName("feed.csv");
+        importedFile.setSize(Files.size(feed));
+        importedFile.setRowCount(2);
+        when(importCoordinator.findImported(feed)).thenReturn(Optional.of(importedFile));
+
+        assertEquals(0, tailImportService.importTail(feed));
+
+        ImportCheckpoint checkpoint = checkpoints.values().iterator().next();
+        assertEquals(Files.size(feed), checkpoint.getByteOffset());
+        assertEquals(2, checkpoint.getLineCount());
+        verifyNoInteractions(transactionTemplate);
+
+        append("Neu, Nina, 10115 Berlin, 1\n");
+
+        assertEquals(1, tailImportService.importTail(feed));
+        assertEquals(List.of("Neu"), savedPersons.stream().map(Person::getLastname).toList());
+        assertEquals(3, checkpoints.values().iterator().next().getRecordCount());
+    }
+
+    /**
+     * Tests that a batch conflicting with a checkpoint advanced by another node is not counted as imported.
+     */
+    @Test
+    void testImportTail_withConcurrentCheckpoint_skipsPoll() throws IOException {
+        write("Müller, Hans, 67742 Lauterecken, 1\n");
+        when(transactionTemplate.execute(any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(ImportCheckpoint.class, feed.toString()));
+
+        assertEquals(0, tailImportService.importTail(feed));
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void write(String content) throws IOException {
+        Files.writeString(feed, content, StandardCharsets.UTF_8);
+    }
+
+    private void append(String content) throws IOException {
+        Files.writeString(feed, content, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+}